@@ -5,19 +5,33 @@ import jnetbase.java.threads.Executor;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.file.*;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 
-import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.nio.file.StandardWatchEventKinds.*;
 
 public final class FileSystemWatcher implements AutoCloseable {
 
+    private static final int MinKnown = 4096;
+    private static final int QueuePerWorker = 256;
+
     private final Path _folder;
     private final WatchService _watcher;
     private final List<WatchEvent.Kind<?>> _kinds;
     private final ThreadFactory _executor;
+    private final Set<Path> _queued;
 
     public FileSystemWatcher(Path folder, ThreadFactory executor, WatchEvent.Kind<?>... kinds) {
         var root = folder.toFile();
@@ -28,6 +42,7 @@ public final class FileSystemWatcher implements AutoCloseable {
             _watcher = FileSystems.getDefault().newWatchService();
             _kinds = Arrays.asList(kinds);
             _executor = executor;
+            _queued = ConcurrentHashMap.newKeySet();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -46,8 +61,16 @@ public final class FileSystemWatcher implements AutoCloseable {
 
     private WatchKey _key;
     private Thread _thread;
+    private List<Thread> _workers;
+    private BlockingQueue<Path> _work;
     private FilenameFilter _filter;
     private Consumer<Path> _callback;
+    private Duration _pollInterval;
+    private int _workerCount;
+
+    // Seen files and their modification time, only touched by the watcher thread
+    private Map<Path, Long> _known;
+    private int _maxKnown;
 
     private void stop() {
         if (_key != null)
@@ -56,6 +79,12 @@ public final class FileSystemWatcher implements AutoCloseable {
         if (_thread != null)
             _thread.interrupt();
         _thread = null;
+        if (_workers != null)
+            for (var worker : _workers)
+                worker.interrupt();
+        _workers = null;
+        _work = null;
+        _queued.clear();
     }
 
     public void setFileFilter(FilenameFilter filter) {
@@ -66,49 +95,210 @@ public final class FileSystemWatcher implements AutoCloseable {
         _callback = handler;
     }
 
+    // Lists the folder in this interval instead of using the watch service
+    public void setPollInterval(Duration interval) {
+        _pollInterval = interval;
+    }
+
+    // Runs callbacks on this many threads instead of the watcher thread, not in order then
+    public void setWorkers(int count) {
+        _workerCount = count;
+    }
+
+    private boolean accept(Path name) {
+        return _filter == null || _filter.accept(null, name.toString());
+    }
+
     private void runLoop() throws InterruptedException {
+        // Files made while registering have no event, so they are found here
+        var missed = new LinkedHashSet<Path>();
+        rescan(missed);
+        for (var path : missed)
+            sendNotification(path);
         while (!Thread.interrupted()) {
-            var key = _watcher.take();
-            var events = key.pollEvents();
-            key.reset();
-            for (var event : events) {
-                var kind = event.kind();
-                if (kind == OVERFLOW || !_kinds.contains(kind))
-                    continue;
-                var ctx = event.context();
-                if (!_filter.accept(null, ctx.toString()))
+            // Drain whatever piled up so one burst is handled as one batch
+            var keys = new ArrayList<WatchKey>();
+            keys.add(_watcher.take());
+            WatchKey more;
+            while ((more = _watcher.poll()) != null)
+                keys.add(more);
+            var batch = new LinkedHashSet<Path>();
+            var overflow = false;
+            for (var key : keys) {
+                var events = key.pollEvents();
+                key.reset();
+                for (var event : events) {
+                    var kind = event.kind();
+                    if (kind == OVERFLOW) {
+                        overflow = true;
+                        continue;
+                    }
+                    var name = (Path) event.context();
+                    if (!accept(name) || !track(kind, name) || !_kinds.contains(kind))
+                        continue;
+                    batch.add(_folder.resolve(name));
+                }
+            }
+            // Events were lost, so compare against the folder itself
+            if (overflow || _known.size() > _maxKnown)
+                rescan(batch);
+            for (var path : batch)
+                sendNotification(path);
+        }
+    }
+
+    private boolean track(WatchEvent.Kind<?> kind, Path name) {
+        if (kind == ENTRY_DELETE)
+            return _known.remove(name) != null;
+        var time = getTime(_folder.resolve(name));
+        if (kind == ENTRY_CREATE)
+            return time == null || _known.put(name, time) == null;
+        if (time != null)
+            _known.put(name, time);
+        return true;
+    }
+
+    private Long getTime(Path path) {
+        if (!_kinds.contains(ENTRY_MODIFY))
+            return 0L;
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void pollLoop() throws InterruptedException {
+        var sleep = Math.max(1L, _pollInterval.toNanos());
+        while (!Thread.interrupted()) {
+            Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            var batch = new LinkedHashSet<Path>();
+            rescan(batch);
+            for (var path : batch)
+                sendNotification(path);
+        }
+    }
+
+    private Map<Path, Long> list() {
+        var found = new HashMap<Path, Long>();
+        try (var files = Files.newDirectoryStream(_folder)) {
+            for (var file : files) {
+                var name = file.getFileName();
+                if (!accept(name))
                     continue;
-                var path = (Path) ctx;
-                var full = _folder.resolve(path);
-                sendNotification(full);
+                var time = getTime(file);
+                if (time != null)
+                    found.put(name, time);
             }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return found;
+    }
+
+    private void rescan(Set<Path> batch) {
+        var current = list();
+        if (current == null)
+            return;
+        // Sorted, so names with counters come out in the order they were written
+        for (var entry : new TreeMap<>(current).entrySet()) {
+            var before = _known.get(entry.getKey());
+            if (before == null) {
+                if (_kinds.contains(ENTRY_CREATE))
+                    batch.add(_folder.resolve(entry.getKey()));
+            } else if (!before.equals(entry.getValue()) && _kinds.contains(ENTRY_MODIFY))
+                batch.add(_folder.resolve(entry.getKey()));
+        }
+        if (_kinds.contains(ENTRY_DELETE))
+            for (var name : _known.keySet())
+                if (!current.containsKey(name))
+                    batch.add(_folder.resolve(name));
+        _known = current;
+        _maxKnown = Math.max(MinKnown, current.size() * 2);
+    }
+
+    private void sendNotification(Path path) throws InterruptedException {
+        var work = _work;
+        if (work == null) {
+            notify(path);
+            return;
         }
+        // Still waiting for a worker, so one call covers both
+        if (_queued.add(path))
+            work.put(path);
     }
 
-    private void sendNotification(Path path) {
-        _callback.accept(path);
+    private void notify(Path path) {
+        var callback = _callback;
+        if (callback == null)
+            return;
+        try {
+            callback.accept(path);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void workLoop() throws InterruptedException {
+        var work = _work;
+        while (!Thread.interrupted()) {
+            var path = work.take();
+            _queued.remove(path);
+            notify(path);
+        }
     }
 
     private void tryRun() {
         try {
-            runLoop();
+            if (_pollInterval == null)
+                runLoop();
+            else
+                pollLoop();
         } catch (ClosedWatchServiceException | InterruptedException e) {
             // Just ignore
         }
     }
 
+    private void tryWork() {
+        try {
+            workLoop();
+        } catch (InterruptedException e) {
+            // Just ignore
+        }
+    }
+
+    private Thread startThread(Runnable action, String name) {
+        if (_executor instanceof Executor ee)
+            return ee.createThread(action, name);
+        var thread = _executor.newThread(action);
+        thread.setName(name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
     private void start() throws IOException {
-        var args = _kinds.toArray(WatchEvent.Kind[]::new);
-        _key = _folder.register(_watcher, args);
-
-        if (_executor instanceof Executor ee) {
-            _thread = ee.createThread(this::tryRun, "FileSystemWatcher");
-        } else {
-            _thread = _executor.newThread(this::tryRun);
-            _thread.setName("FileSystemWatcher");
-            _thread.setDaemon(true);
-            _thread.start();
+        // Existing files count as seen, like with the watch service
+        _known = new HashMap<>();
+        var current = list();
+        if (current != null)
+            _known = current;
+        _maxKnown = Math.max(MinKnown, _known.size() * 2);
+        if (_pollInterval == null) {
+            // Deletes are always watched, so a name that comes back counts as new
+            var kinds = new LinkedHashSet<WatchEvent.Kind<?>>(_kinds);
+            kinds.add(ENTRY_DELETE);
+            _key = _folder.register(_watcher, kinds.toArray(WatchEvent.Kind[]::new));
+        }
+
+        if (_workerCount > 0) {
+            _work = new ArrayBlockingQueue<>(_workerCount * QueuePerWorker);
+            _workers = new ArrayList<>();
+            for (var i = 0; i < _workerCount; i++)
+                _workers.add(startThread(this::tryWork, "FileSystemWatcher|Worker"));
         }
+        _thread = startThread(this::tryRun, "FileSystemWatcher");
     }
 
     @Override
@@ -0,0 +1,74 @@
+package jnetbase.java.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class BufferPool {
+
+    private static final int MinShift = 8;
+
+    private final Queue<ByteBuffer>[] _free;
+    private final AtomicInteger[] _counts;
+    private final int _maxPerSize;
+    private final boolean _direct;
+
+    public BufferPool() {
+        this(1 << 20, 64);
+    }
+
+    public BufferPool(int maxSize, int maxPerSize) {
+        this(maxSize, maxPerSize, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BufferPool(int maxSize, int maxPerSize, boolean direct) {
+        var classes = Math.max(1, toSizeClass(maxSize) + 1);
+        _free = new Queue[classes];
+        _counts = new AtomicInteger[classes];
+        for (var i = 0; i < classes; i++) {
+            _free[i] = new ConcurrentLinkedQueue<>();
+            _counts[i] = new AtomicInteger();
+        }
+        _maxPerSize = maxPerSize;
+        _direct = direct;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        var buffer = _direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    private static int toSizeClass(int size) {
+        if (size <= 1 << MinShift)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MinShift;
+    }
+
+    public ByteBuffer acquire(int size) {
+        var sizeClass = toSizeClass(size);
+        if (sizeClass >= _free.length)
+            return allocate(size);
+        var buffer = _free[sizeClass].poll();
+        if (buffer == null)
+            return allocate(1 << (sizeClass + MinShift)).limit(size);
+        _counts[sizeClass].decrementAndGet();
+        return buffer.clear().limit(size);
+    }
+
+    public void release(ByteBuffer buffer) {
+        var capacity = buffer.capacity();
+        if (buffer.isDirect() != _direct)
+            return;
+        var sizeClass = toSizeClass(capacity);
+        if (sizeClass >= _free.length || capacity != 1 << (sizeClass + MinShift))
+            return;
+        if (_counts[sizeClass].incrementAndGet() > _maxPerSize) {
+            _counts[sizeClass].decrementAndGet();
+            return;
+        }
+        _free[sizeClass].add(buffer);
+    }
+}
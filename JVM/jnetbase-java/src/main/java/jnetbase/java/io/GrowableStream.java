@@ -0,0 +1,79 @@
+package jnetbase.java.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public final class GrowableStream extends OutputStream {
+
+    private byte[] _buf;
+    private int _count;
+
+    public GrowableStream() {
+        this(256);
+    }
+
+    public GrowableStream(int capacity) {
+        _buf = new byte[capacity];
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= _buf.length)
+            return;
+        var next = Math.max(size, _buf.length << 1);
+        _buf = Arrays.copyOf(_buf, next);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(_count + 1);
+        _buf[_count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(_count + len);
+        System.arraycopy(b, off, _buf, _count, len);
+        _count += len;
+    }
+
+    public void write(ByteBuffer src) {
+        var len = src.remaining();
+        ensureCapacity(_count + len);
+        src.get(_buf, _count, len);
+        _count += len;
+    }
+
+    public void patchInt(int position, int value) {
+        ByteBuffer.wrap(_buf).order(ByteOrder.nativeOrder()).putInt(position, value);
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        stream.write(_buf, 0, _count);
+    }
+
+    public byte[] getBuffer() {
+        return _buf;
+    }
+
+    public int size() {
+        return _count;
+    }
+
+    public void reset() {
+        _count = 0;
+    }
+
+    public void truncate(int size) {
+        _count = Math.min(_count, size);
+    }
+
+    public byte[] detach() {
+        var bytes = _count == _buf.length ? _buf : Arrays.copyOf(_buf, _count);
+        _buf = new byte[0];
+        _count = 0;
+        return bytes;
+    }
+}
@@ -48,28 +48,26 @@ public final class MemPipeStream implements Flushable, Closeable {
         }
 
         @Override
-        public int read(byte[] b) {
+        public int read(byte[] b, int off, int len) {
+            if (len == 0)
+                return 0;
             try {
-                _queue.take();
-                pos = _readPos;
-                var res = super.read(b, 0, b.length);
-                if (res >= 0)
-                    _readPos += res;
-                return res;
+                while (true) {
+                    synchronized (this) {
+                        if (_readPos < count) {
+                            pos = _readPos;
+                            var res = super.read(b, off, len);
+                            _readPos += res;
+                            return res;
+                        }
+                    }
+                    _queue.take();
+                }
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
         }
 
-        @Override
-        public synchronized int read(byte[] b, int off, int len) {
-            pos = _readPos;
-            var res = super.read(b, off, len);
-            if (res >= 0)
-                _readPos += res;
-            return res;
-        }
-
         synchronized void replace(byte[] array) {
             buf = array;
             count = array.length;
@@ -0,0 +1,42 @@
+package jnetbase.java.threads;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class VirtualExecutor implements Executor {
+
+    private final Set<Thread> _threads;
+
+    public VirtualExecutor() {
+        _threads = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public void close() {
+        for (var thread : _threads)
+            thread.interrupt();
+        _threads.clear();
+    }
+
+    @Override
+    public Thread createThread(Runnable action, String name) {
+        var builder = Thread.ofVirtual();
+        if (name != null)
+            builder.name(name);
+        var task = builder.unstarted(() -> {
+            try {
+                action.run();
+            } finally {
+                _threads.remove(Thread.currentThread());
+            }
+        });
+        _threads.add(task);
+        task.start();
+        return task;
+    }
+
+    @Override
+    public Thread newThread(Runnable action) {
+        return createThread(action, null);
+    }
+}
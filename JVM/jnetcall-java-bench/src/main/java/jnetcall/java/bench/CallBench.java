@@ -0,0 +1,113 @@
+package jnetcall.java.bench;
+
+import jnetbase.java.io.MemPipeStream;
+import jnetbase.java.threads.ThreadExecutor;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.client.ClassProxy;
+import jnetcall.java.client.tools.ClientHelper;
+import jnetcall.java.impl.enc.BinaryEncoding;
+import jnetcall.java.impl.io.StreamTransport;
+import jnetcall.java.impl.io.disk.FolderTransport;
+import jnetcall.java.impl.io.disk.JournalTransport;
+import jnetcall.java.impl.io.mem.SharedMemoryTransport;
+import jnetcall.java.impl.io.net.ReliableUdpTransport;
+import jnetcall.java.impl.io.net.TcpTransport;
+import jnetcall.java.server.ClassHosting;
+import org.example.api.ICalculator;
+import org.example.impl.CalculatorService;
+import org.javatuples.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallBench {
+
+    @Param({"mem", "shm", "tcp", "rudp", "folder", "journal"})
+    public String transport;
+
+    private ThreadExecutor _executor;
+    private ClassHosting _hosting;
+    private ICalculator _client;
+
+    @Setup
+    public void setup() throws Exception {
+        _executor = new ThreadExecutor();
+        var both = createBoth(transport);
+
+        _hosting = new ClassHosting(new CalculatorService(), both.getValue1(), _executor);
+        _hosting.registerAll();
+        _hosting.serve();
+
+        var proxy = new ClassProxy(both.getValue0(), _executor);
+        proxy.listen();
+        _client = ClientHelper.create(ICalculator.class, proxy);
+        _client.add(1, 2);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        _client.close();
+        _hosting.close();
+    }
+
+    @Benchmark
+    public double add() {
+        return _client.add(4.2, 2.4);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double addParallel() {
+        return _client.add(4.2, 2.4);
+    }
+
+    private Pair<ISendTransport, ISendTransport> createBoth(String name) throws IOException {
+        var encoding = new BinaryEncoding();
+        switch (name) {
+            case "mem":
+                var memOne = new MemPipeStream();
+                var memTwo = new MemPipeStream();
+                return Pair.with(
+                        new StreamTransport(encoding, memOne.asI(), memTwo.asO()),
+                        new StreamTransport(encoding, memTwo.asI(), memOne.asO()));
+            case "shm":
+                var file = Files.createTempDirectory("bench").resolve("ring.shm");
+                var host = new SharedMemoryTransport(encoding, file, 1 << 16, true);
+                return Pair.with(
+                        new SharedMemoryTransport(encoding, file, 1 << 16, false),
+                        host);
+            case "tcp":
+                return Pair.with(
+                        new TcpTransport(encoding, "localhost", 14001, "localhost", 14051),
+                        new TcpTransport(encoding, "localhost", 14051, "localhost", 14001));
+            case "rudp":
+                return Pair.with(
+                        new ReliableUdpTransport(encoding, "localhost", 14101, "localhost", 14151),
+                        new ReliableUdpTransport(encoding, "localhost", 14151, "localhost", 14101));
+            case "folder":
+                var root = Files.createTempDirectory("bench");
+                var first = root.resolve("left");
+                var second = root.resolve("right");
+                return Pair.with(
+                        new FolderTransport(encoding, first, second, _executor),
+                        new FolderTransport(encoding, second, first, _executor));
+            case "journal":
+                var base = Files.createTempDirectory("bench");
+                var one = base.resolve("left");
+                var two = base.resolve("right");
+                return Pair.with(
+                        new JournalTransport(encoding, one, two),
+                        new JournalTransport(encoding, two, one));
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package jnetcall.java.bench;
+
+import jnetproto.java.tools.Conversions;
+import org.javatuples.Triplet;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBench {
+
+    public record Sample(int id, String name, double[] values) {
+    }
+
+    private Sample _record;
+    private Object[] _recordArgs;
+    private Triplet<Integer, String, Double> _tuple;
+    private Object[] _tupleArgs;
+    private Type _tupleType;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        _record = new Sample(42, "Sample", new double[]{4.2d, 2.4d});
+        _recordArgs = (Object[]) Conversions.toObjectArray(_record);
+        _tuple = Triplet.with(42, "Tuple", 4.2d);
+        _tupleArgs = _tuple.toArray();
+        _tupleType = ConversionBench.class.getDeclaredField("_tuple").getGenericType();
+    }
+
+    @Benchmark
+    public Object recordToArray() {
+        return Conversions.toObjectArray(_record);
+    }
+
+    @Benchmark
+    public Object recordFromArray() {
+        return Conversions.fromObjectArray(Sample.class, _recordArgs.clone());
+    }
+
+    @Benchmark
+    public Object tupleFromArray() {
+        return Conversions.fromObjectArray(_tupleType, _tupleArgs.clone());
+    }
+}
@@ -0,0 +1,66 @@
+package jnetcall.java.bench;
+
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
+import jnetcall.java.impl.enc.BinaryEncoding;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBench {
+
+    private BinaryEncoding _encoding;
+    private MethodCall _call;
+    private MethodResult _result;
+    private byte[] _callBytes;
+    private byte[] _resultBytes;
+    private ByteBuffer _callBuffer;
+
+    @Setup
+    public void setup() throws Exception {
+        _encoding = new BinaryEncoding();
+        _call = new MethodCall((short) 42, "ICalculator", "add", new Object[]{4.2d, 2.4d});
+        _result = new MethodResult((short) 42, 6.6d, MethodStatus.Ok.getValue());
+        _callBytes = _encoding.encode(_call);
+        _resultBytes = _encoding.encode(_result);
+        _callBuffer = ByteBuffer.allocateDirect(_callBytes.length).put(_callBytes).flip();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        _encoding.close();
+    }
+
+    @Benchmark
+    public byte[] encodeCall() throws Exception {
+        return _encoding.encode(_call);
+    }
+
+    @Benchmark
+    public MethodCall decodeCall() throws Exception {
+        return _encoding.decode(_callBytes, MethodCall.class);
+    }
+
+    @Benchmark
+    public MethodCall decodeCallDirect() throws Exception {
+        return _encoding.decode(_callBuffer.duplicate(), MethodCall.class);
+    }
+
+    @Benchmark
+    public byte[] encodeResult() throws Exception {
+        return _encoding.encode(_result);
+    }
+
+    @Benchmark
+    public MethodResult decodeResult() throws Exception {
+        return _encoding.decode(_resultBytes, MethodResult.class);
+    }
+}
@@ -0,0 +1,87 @@
+package jnetcall.java.bench;
+
+import jnetbase.java.io.GrowableStream;
+import jnetproto.java.api.DataType;
+import jnetproto.java.core.BinaryReader;
+import jnetproto.java.core.BinaryWriter;
+import org.javatuples.Pair;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoBench {
+
+    @Param({"Bool", "I8", "I16", "I32", "I64", "F32", "F64", "F128", "Char", "UTF8",
+            "Duration", "Timestamp", "Guid", "Array", "Map", "Tuple", "Set", "List", "Bag", "Binary"})
+    public DataType kind;
+
+    private Object _value;
+    private GrowableStream _output;
+    private BinaryWriter _writer;
+    private ByteArrayInputStream _input;
+    private BinaryReader _reader;
+
+    @Setup
+    public void setup() throws IOException {
+        _value = createSample(kind);
+        _output = new GrowableStream();
+        _writer = new BinaryWriter(_output, 1024);
+        _writer.writeObject(_value);
+        _writer.flush();
+        _input = new ByteArrayInputStream(_output.getBuffer(), 0, _output.size());
+        _reader = new BinaryReader(_input);
+        _output.reset();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        _output.reset();
+        _writer.writeObject(_value);
+        _writer.flush();
+        return _output.size();
+    }
+
+    @Benchmark
+    public Object read() throws IOException {
+        _input.reset();
+        return _reader.readObject();
+    }
+
+    static Object createSample(DataType kind) {
+        return switch (kind) {
+            case Bool -> true;
+            case I8 -> (byte) 42;
+            case I16 -> (short) 4242;
+            case I32 -> 424242;
+            case I64 -> 42424242424242L;
+            case F32 -> 42.42f;
+            case F64 -> 4242.4242d;
+            case F128 -> BigDecimal.valueOf(424242.424242d);
+            case Char -> 'X';
+            case UTF8 -> "The quick brown fox jumps over the lazy dog";
+            case Duration -> Duration.ofSeconds(4242, 42);
+            case Timestamp -> LocalDateTime.of(2022, 4, 2, 12, 42, 42);
+            case Guid -> UUID.fromString("27edb110-afef-4ce3-b8c1-3fcb2ec3fabe");
+            case Array -> new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+            case Map -> new HashMap<>(Map.of("a", 1, "b", 2, "c", 3, "d", 4));
+            case Tuple -> Pair.with(42, "Tuple");
+            case Set -> new TreeSet<>(List.of("Cat", "Dog", "Hot"));
+            case List -> new ArrayList<>(List.of("Cat", "Dog", "Hot", "Cat", "Dog", "Hot"));
+            case Bag -> new Object[]{42, "Bag", 4.2d, true};
+            case Binary -> new byte[256];
+            default -> throw new IllegalArgumentException(kind.toString());
+        };
+    }
+}
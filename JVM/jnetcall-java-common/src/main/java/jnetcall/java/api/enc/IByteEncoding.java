@@ -1,4 +1,19 @@
 package jnetcall.java.api.enc;
 
+import jnetbase.java.meta.TypeToken;
+
+import java.nio.ByteBuffer;
+
 public interface IByteEncoding extends IEncoding<byte[]> {
+
+    <T> T decode(ByteBuffer data, Class<T> clazz) throws Exception;
+    <T> T decode(ByteBuffer data, TypeToken<T> token) throws Exception;
+
+    static <T> T decode(IEncoding<byte[]> encoding, ByteBuffer data, Class<T> clazz) throws Exception {
+        if (encoding instanceof IByteEncoding bytes)
+            return bytes.decode(data, clazz);
+        var copy = new byte[data.remaining()];
+        data.duplicate().get(copy);
+        return encoding.decode(copy, clazz);
+    }
 }
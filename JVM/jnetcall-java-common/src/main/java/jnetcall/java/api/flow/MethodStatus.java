@@ -6,7 +6,8 @@ public enum MethodStatus {
     MethodNotFound(406),
     MethodFailed(500),
     Continue(100),
-    Ok(200);
+    Ok(200),
+    Partial(206);
 
     private final short value;
 
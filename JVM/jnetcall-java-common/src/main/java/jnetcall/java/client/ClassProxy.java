@@ -3,7 +3,6 @@ package jnetcall.java.client;
 import jnetbase.java.meta.Reflect;
 import jnetbase.java.threads.Executor;
 import jnetbase.java.threads.ManualResetEvent;
-import jnetbase.java.threads.Tasks;
 import jnetcall.java.api.flow.Call;
 import jnetcall.java.api.flow.MethodCall;
 import jnetcall.java.api.flow.MethodResult;
@@ -13,59 +12,125 @@ import jnetcall.java.api.io.IPushTransport;
 import jnetcall.java.api.io.ISendTransport;
 import jnetcall.java.client.api.IProxy;
 import jnetcall.java.client.model.CallState;
+import jnetcall.java.client.model.CallTable;
+import jnetcall.java.client.model.ChunkBuffer;
+import jnetcall.java.client.model.ChunkIterator;
+import jnetcall.java.client.model.ChunkStream;
 import jnetcall.java.client.model.DelegateRef;
 import jnetcall.java.impl.util.ClassTools;
 import jnetproto.java.tools.Conversions;
 
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public final class ClassProxy implements IProxy {
 
     private final Executor _executor;
+    private final ExecutorService _continuations;
     private final ISendTransport _protocol;
-    private final ConcurrentMap<Short, CallState> _signals;
+    private final CallTable _calls;
+    private final ConcurrentMap<Method, Short> _ordinals;
+
+    private volatile Map<String, Short> _methodIds;
 
     private boolean _running;
 
     public ClassProxy(ISendTransport protocol, Executor executor) {
+        this(protocol, executor, MaxCalls);
+    }
+
+    public ClassProxy(ISendTransport protocol, Executor executor, int maxCalls) {
         _executor = executor;
+        _continuations = Executors.newCachedThreadPool(r -> {
+            var thread = new Thread(r, getClass().getSimpleName() + "|Async");
+            thread.setDaemon(true);
+            return thread;
+        });
         _protocol = protocol;
-        _signals = new ConcurrentHashMap<>();
+        _calls = new CallTable(maxCalls);
+        _ordinals = new ConcurrentHashMap<>();
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        var call = pack(method, args);
-        if (call == null)
+        var source = method.getDeclaringClass().getSimpleName();
+        if (source.equals("AutoCloseable") && method.getName().equals("close")) {
+            close();
             return null;
-        var answer = request(method, call);
+        }
+        var state = createState(!Reflect.isAsync(method));
+        MethodCall call;
+        try {
+            call = pack(state.Id, source, method, args);
+            subscribe(call, args);
+        } catch (Exception e) {
+            _calls.remove(state.Id);
+            throw e;
+        }
+        var answer = request(method, call, state);
         return answer;
     }
 
-    private static AtomicInteger _callId = new AtomicInteger();
+    private static final int MaxCalls = 1024;
 
-    private static int getNextId() {
-        return _callId.incrementAndGet();
-    }
+    private static AtomicInteger _delegateId = new AtomicInteger();
 
-    private MethodCall pack(Method method, Object[] rawArgs) throws Exception {
-        var id = (short) getNextId();
-        var source = method.getDeclaringClass().getSimpleName();
+    private MethodCall pack(short id, String source, Method method, Object[] rawArgs) {
         var args = rewriteArgsIfNeeded(rawArgs);
-        var call = new MethodCall(id, source, method.getName(), args);
-        if (call.className().equals("AutoCloseable") && call.methodName().equals("close")) {
-            close();
-            return null;
+        var ordinal = findOrdinal(method);
+        if (ordinal != null)
+            return new MethodCall(id, null, null, prependArg(ordinal, args));
+        return new MethodCall(id, source, method.getName(), args);
+    }
+
+    public boolean handshake() throws InterruptedException {
+        var state = createState(true);
+        var msg = new MethodCall(state.Id, ClassTools.Handshake, ClassTools.Handshake, new Object[0]);
+        String[] keys;
+        try {
+            keys = (String[]) requestSync(String[].class, msg, state);
+        } catch (UnsupportedOperationException e) {
+            return false;
         }
-        return call;
+        var methodIds = new HashMap<String, Short>();
+        for (var i = 0; i < keys.length; i++)
+            methodIds.put(keys[i], (short) i);
+        _ordinals.clear();
+        _methodIds = methodIds;
+        return true;
+    }
+
+    private Short findOrdinal(Method method) {
+        var methodIds = _methodIds;
+        if (methodIds == null)
+            return null;
+        var ordinal = _ordinals.get(method);
+        if (ordinal != null)
+            return ordinal < 0 ? null : ordinal;
+        var key = ClassTools.toMethodKey(method.getDeclaringClass().getSimpleName(),
+                method.getName(), method.getParameterCount());
+        ordinal = methodIds.getOrDefault(key, (short) -1);
+        _ordinals.put(method, ordinal);
+        return ordinal < 0 ? null : ordinal;
+    }
+
+    private static Object[] prependArg(Object first, Object[] args) {
+        var result = new Object[args.length + 1];
+        result[0] = first;
+        System.arraycopy(args, 0, result, 1, args.length);
+        return result;
     }
 
     private static final Map<String, DelegateRef> Delegates = new HashMap<>();
@@ -75,12 +140,31 @@ public final class ClassProxy implements IProxy {
         DelegateRef delRef;
         if ((delRef = Delegates.getOrDefault(delId, null)) == null) {
             Delegates.put(delId, delRef = new DelegateRef());
-            delRef.CallId = (short) getNextId();
+            delRef.CallId = (short) _delegateId.incrementAndGet();
             delRef.Entry = del;
         }
         return delRef.CallId;
     }
 
+    // Tells the transports which arguments they may be called back on
+    private void subscribe(MethodCall call, Object[] raw) {
+        if (raw == null)
+            return;
+        // Arguments can be shifted by a leading ordinal
+        var shift = call.args().length - raw.length;
+        var marks = new ArrayList<>();
+        marks.add(call.id());
+        for (var i = 0; i < raw.length; i++)
+            if (Reflect.isDelegate(raw[i])) {
+                marks.add(i + shift);
+                marks.add(call.args()[i + shift]);
+            }
+        if (marks.size() == 1)
+            return;
+        var sub = ClassTools.Subscribe;
+        _protocol.send(new MethodCall(ClassTools.NoCallId, sub, sub, marks.toArray()));
+    }
+
     private static Object[] rewriteArgsIfNeeded(Object[] raw) {
         if (raw == null) {
             return new Object[0];
@@ -101,57 +185,61 @@ public final class ClassProxy implements IProxy {
     public void close() throws Exception {
         _running = false;
         _executor.close();
+        _continuations.shutdown();
         disposeSignals();
         _protocol.close();
     }
 
     private void disposeSignals() {
-        for (var signal : _signals.entrySet())
-            disposeSignal(signal);
-        _signals.clear();
+        for (var state : _calls.removeAll())
+            disposeSignal(state);
     }
 
-    private static void disposeSignal(Map.Entry<Short, CallState> signal) {
-        var state = signal.getValue();
+    private static void disposeSignal(CallState state) {
         state.Result = new InterruptedException("Dispose");
         state.set();
     }
 
-    private CallState createState(Call call, boolean sync) {
-        var callId = call.id();
+    private CallState createState(boolean sync) throws InterruptedException {
         var state = new CallState();
         if (sync)
             state.SyncWait = new ManualResetEvent(false);
         else
-            state.AsyncWait = new ManualResetEvent(false);
-        _signals.put(callId, state);
+            state.AsyncWait = new CompletableFuture<>();
+        _calls.add(state);
         return state;
     }
 
-    private Object waitSignal(Call call) throws InterruptedException {
-        var id = call.id();
-        var state = _signals.get(id);
+    private void send(MethodCall msg) {
+        try {
+            _protocol.send(msg);
+        } catch (RuntimeException e) {
+            _calls.remove(msg.id());
+            throw e;
+        }
+    }
+
+    private static Object waitSignal(CallState state) throws InterruptedException {
         state.SyncWait.waitOne();
         var res = state.Result;
         return res;
     }
 
-    private CompletableFuture<Object> pinSignal(Call call) {
-        var id = call.id();
-        return Tasks.wrap(() -> {
-            var state = _signals.get(id);
-            state.AsyncWait.waitOne();
-            return state.Result;
-        });
-    }
-
     private void setSignal(Call call) {
         if (call instanceof MethodResult mr && mr.status() == MethodStatus.Continue.getValue()) {
             setDelegate(mr);
             return;
         }
+        if (call instanceof MethodResult mr && mr.status() == MethodStatus.Partial.getValue()) {
+            var state = _calls.get(mr.id());
+            if (state != null && state.Stream != null)
+                state.Stream.add((Object[]) mr.result());
+            return;
+        }
         var callId = call.id();
-        var state = _signals.get(callId);
+        var state = _calls.remove(callId);
+        if (state == null)
+            return;
         state.Result = call;
         state.set();
     }
@@ -176,30 +264,52 @@ public final class ClassProxy implements IProxy {
         Reflect.invoke(method, delegate, args);
     }
 
-    public Object request(Method method, MethodCall call) throws InterruptedException {
+    private Object request(Method method, MethodCall call, CallState state) throws InterruptedException {
         Object answer;
-        if (Reflect.isAsync(method))
-            answer = requestAsync(method, call);
+        if (isStreamed(method.getReturnType()))
+            answer = requestStream(method, call, state);
+        else if (Reflect.isAsync(method))
+            answer = requestAsync(method, call, state);
         else
-            answer = requestSync(method, call);
+            answer = requestSync(method.getGenericReturnType(), call, state);
         return answer;
     }
 
-    private Object requestSync(Method method, MethodCall msg) throws InterruptedException {
-        createState(msg, true);
-        _protocol.send(msg);
-        var raw = waitSignal(msg);
-        var res = extract(raw, method.getGenericReturnType());
+    private Object requestSync(Type returnType, MethodCall msg, CallState state) throws InterruptedException {
+        send(msg);
+        var raw = waitSignal(state);
+        var res = extract(raw, returnType);
         return res;
     }
 
+    private static boolean isStreamed(Class<?> returnType) {
+        return returnType == InputStream.class || returnType == Iterator.class;
+    }
+
+    // Returns right away, chunks arrive while the caller reads
+    private Object requestStream(Method method, MethodCall msg, CallState state) {
+        var buffer = new ChunkBuffer(this::sendCredit);
+        state.Stream = buffer;
+        send(msg);
+        if (method.getReturnType() == InputStream.class)
+            return new ChunkStream(buffer);
+        var itemType = Reflect.getTaskType(method.getGenericReturnType(), Object.class);
+        return new ChunkIterator<>(buffer, itemType);
+    }
+
+    private void sendCredit(short token, int count) {
+        var args = new Object[]{token, count};
+        _protocol.send(new MethodCall(token, ClassTools.Credit, ClassTools.Credit, args));
+    }
+
+    // Not on the listener, so continuations may wait for other calls
     @SuppressWarnings("unchecked")
-    private static <T> CompletableFuture<T> continueLater(CompletableFuture<Object> task, Type type) {
-        return task.thenApply(previous -> {
+    private <T> CompletableFuture<T> continueLater(CompletableFuture<Object> task, Type type) {
+        return task.thenApplyAsync(previous -> {
             var raw = previous;
             var res = extract(raw, type);
             return (T) res;
-        });
+        }, _continuations);
     }
 
     private static Object extract(Object res, Type returnType) {
@@ -209,11 +319,10 @@ public final class ClassProxy implements IProxy {
         throw new UnsupportedOperationException(res + " ?!");
     }
 
-    private Object requestAsync(Method method, MethodCall msg) {
-        createState(msg, false);
-        _protocol.send(msg);
+    private Object requestAsync(Method method, MethodCall msg, CallState state) {
+        send(msg);
         var taskType = Reflect.getTaskType(method.getGenericReturnType(), Object.class);
-        var task = pinSignal(msg);
+        var task = state.AsyncWait;
         var next = continueLater(task, taskType);
         return next;
     }
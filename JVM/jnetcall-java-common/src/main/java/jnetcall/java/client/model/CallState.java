@@ -2,16 +2,23 @@ package jnetcall.java.client.model;
 
 import jnetbase.java.threads.ManualResetEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 public class CallState {
 
+    public volatile short Id;
+
     public ManualResetEvent SyncWait;
 
-    public ManualResetEvent AsyncWait;
+    public CompletableFuture<Object> AsyncWait;
 
     public Object Result;
 
+    public ChunkBuffer Stream;
+
     public void set() {
         if (SyncWait != null) SyncWait.set();
-        if (AsyncWait != null) AsyncWait.set();
+        if (AsyncWait != null) AsyncWait.complete(Result);
+        if (Stream != null) Stream.finish(Result);
     }
 }
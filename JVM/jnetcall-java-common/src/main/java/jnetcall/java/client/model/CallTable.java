@@ -0,0 +1,69 @@
+package jnetcall.java.client.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public final class CallTable {
+
+    private final AtomicReferenceArray<CallState> _slots;
+    private final Semaphore _free;
+    private final AtomicInteger _sequence;
+    private final int _slotBits;
+    private final int _mask;
+
+    public CallTable(int capacity) {
+        if (capacity < 2 || capacity > (1 << 14) || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        _slots = new AtomicReferenceArray<>(capacity);
+        _free = new Semaphore(capacity);
+        _sequence = new AtomicInteger();
+        _slotBits = Integer.numberOfTrailingZeros(capacity);
+        _mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return _slots.length();
+    }
+
+    public short add(CallState state) throws InterruptedException {
+        _free.acquire();
+        while (true) {
+            var seq = _sequence.getAndIncrement();
+            var slot = seq & _mask;
+            var generation = (seq >>> _slotBits) << _slotBits;
+            var id = (short) ((generation | slot) & 0x7FFF);
+            state.Id = id;
+            if (_slots.compareAndSet(slot, null, state))
+                return id;
+        }
+    }
+
+    public CallState get(short id) {
+        var state = _slots.get(id & _mask);
+        return state != null && state.Id == id ? state : null;
+    }
+
+    public CallState remove(short id) {
+        var slot = id & _mask;
+        var state = _slots.get(slot);
+        if (state == null || state.Id != id || !_slots.compareAndSet(slot, state, null))
+            return null;
+        _free.release();
+        return state;
+    }
+
+    public List<CallState> removeAll() {
+        var states = new ArrayList<CallState>();
+        for (var i = 0; i < _slots.length(); i++) {
+            var state = _slots.getAndSet(i, null);
+            if (state == null)
+                continue;
+            states.add(state);
+            _free.release();
+        }
+        return states;
+    }
+}
@@ -0,0 +1,100 @@
+package jnetcall.java.client.model;
+
+import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
+import jnetcall.java.impl.util.ClassTools;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+
+public final class ChunkBuffer {
+
+    private static final Object End = new Object();
+
+    private final BlockingQueue<Object> _chunks;
+    private final BiConsumer<Short, Integer> _credit;
+
+    private volatile short _token;
+    private volatile boolean _hasToken;
+    private volatile boolean _cancelled;
+    private boolean _cancelSent;
+    private boolean _done;
+    private int _consumed;
+
+    public ChunkBuffer(BiConsumer<Short, Integer> credit) {
+        _chunks = new LinkedBlockingQueue<>();
+        _credit = credit;
+    }
+
+    // Every part is the sender's stream token and one chunk
+    public void add(Object[] part) {
+        _token = ((Number) part[0]).shortValue();
+        _hasToken = true;
+        if (_cancelled) {
+            sendCancel();
+            return;
+        }
+        _chunks.add(part[1]);
+    }
+
+    public void finish(Object result) {
+        if (result instanceof MethodResult mr) {
+            if (mr.status() != MethodStatus.Ok.getValue()) {
+                _chunks.add(new IOException("[" + mr.status() + "] " + mr.result()));
+                return;
+            }
+            // Sent whole by a peer without streaming
+            if (mr.result() != null)
+                _chunks.add(mr.result());
+            _chunks.add(End);
+            return;
+        }
+        _chunks.add(result instanceof Throwable t ? new IOException(t) : new IOException(result + ""));
+    }
+
+    // Next chunk or null once everything was read
+    public Object take() throws IOException {
+        if (_done)
+            return null;
+        Object next;
+        try {
+            next = _chunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (next == End) {
+            _done = true;
+            return null;
+        }
+        if (next instanceof IOException e) {
+            _done = true;
+            throw e;
+        }
+        if (_hasToken && ++_consumed >= ClassTools.StreamWindow / 2) {
+            _credit.accept(_token, _consumed);
+            _consumed = 0;
+        }
+        return next;
+    }
+
+    public void cancel() {
+        if (_done)
+            return;
+        _done = true;
+        _cancelled = true;
+        _chunks.clear();
+        if (_hasToken)
+            sendCancel();
+    }
+
+    private synchronized void sendCancel() {
+        if (_cancelSent)
+            return;
+        _cancelSent = true;
+        _credit.accept(_token, -1);
+    }
+}
@@ -0,0 +1,56 @@
+package jnetcall.java.client.model;
+
+import jnetproto.java.tools.Conversions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class ChunkIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final ChunkBuffer _buffer;
+    private final Type _itemType;
+
+    private Object[] _chunk;
+    private int _pos;
+
+    public ChunkIterator(ChunkBuffer buffer, Type itemType) {
+        _buffer = buffer;
+        _itemType = itemType;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (_chunk == null || _pos >= _chunk.length) {
+                var next = _buffer.take();
+                if (next == null) {
+                    _chunk = null;
+                    return false;
+                }
+                _chunk = next instanceof Collection<?> c ? c.toArray() : (Object[]) next;
+                _pos = 0;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return (T) Conversions.convert(_itemType, _chunk[_pos++]);
+    }
+
+    @Override
+    public void close() {
+        _chunk = null;
+        _buffer.cancel();
+    }
+}
@@ -0,0 +1,61 @@
+package jnetcall.java.client.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+public final class ChunkStream extends InputStream {
+
+    private final ChunkBuffer _buffer;
+
+    private byte[] _chunk;
+    private int _pos;
+
+    public ChunkStream(ChunkBuffer buffer) {
+        _buffer = buffer;
+    }
+
+    private boolean fill() throws IOException {
+        while (_chunk == null || _pos >= _chunk.length) {
+            var next = _buffer.take();
+            if (next == null) {
+                _chunk = null;
+                return false;
+            }
+            _chunk = (byte[]) next;
+            _pos = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill())
+            return -1;
+        return _chunk[_pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0)
+            return 0;
+        if (!fill())
+            return -1;
+        var count = Math.min(len, _chunk.length - _pos);
+        System.arraycopy(_chunk, _pos, b, off, count);
+        _pos += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return _chunk == null ? 0 : _chunk.length - _pos;
+    }
+
+    @Override
+    public void close() {
+        _chunk = null;
+        _buffer.cancel();
+    }
+}
@@ -1,12 +1,13 @@
 package jnetcall.java.impl.enc;
 
+import jnetbase.java.io.GrowableStream;
 import jnetbase.java.meta.TypeToken;
 import jnetcall.java.api.enc.IByteEncoding;
 import jnetproto.java.beans.ProtoConvert;
 import jnetproto.java.beans.ProtoSettings;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 
 public final class BinaryEncoding implements IByteEncoding {
 
@@ -18,11 +19,11 @@ public final class BinaryEncoding implements IByteEncoding {
 
     @Override
     public <T> byte[] encode(T data) throws Exception {
-        try (var output = new ByteArrayOutputStream();
-             var proto = new ProtoConvert(null, output, _config)) {
+        var output = new GrowableStream();
+        try (var proto = new ProtoConvert(null, output, _config)) {
             proto.writeObject(data);
-            return output.toByteArray();
         }
+        return output.detach();
     }
 
     @Override
@@ -43,6 +44,22 @@ public final class BinaryEncoding implements IByteEncoding {
         }
     }
 
+    @Override
+    public <T> T decode(ByteBuffer data, Class<T> clazz) throws Exception {
+        try (var proto = new ProtoConvert(data, _config)) {
+            var res = proto.readObject(clazz);
+            return res;
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer data, TypeToken<T> token) throws Exception {
+        try (var proto = new ProtoConvert(data, _config)) {
+            var res = proto.readObject(token);
+            return res;
+        }
+    }
+
     @Override
     public void close() throws Exception {
     }
@@ -0,0 +1,114 @@
+package jnetcall.java.impl.io;
+
+import jnetbase.java.io.BufferPool;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+public final class FrameDecoder implements Closeable {
+
+    private static final int PrefixSize = 4;
+    private static final int InitialSize = 4096;
+
+    private final BufferPool _pool;
+
+    private ByteBuffer _buffer;
+    private int _frameSize;
+    private boolean _done;
+
+    public FrameDecoder() {
+        this(new BufferPool());
+    }
+
+    public FrameDecoder(BufferPool pool) {
+        _pool = pool;
+        _buffer = pool.acquire(InitialSize);
+        _frameSize = -1;
+    }
+
+    // Frames keep their size prefix and are only valid until the next read
+    public ByteBuffer read(ReadableByteChannel channel) throws IOException {
+        reset();
+        while (true) {
+            _buffer.limit(_frameSize < 0 ? PrefixSize : _frameSize);
+            while (_buffer.hasRemaining()) {
+                var got = channel.read(_buffer);
+                if (got < 0)
+                    throw new EOFException(_buffer.position() + " of " + _buffer.limit());
+                if (got == 0)
+                    return null;
+            }
+            if (_frameSize >= 0)
+                return complete();
+            begin();
+        }
+    }
+
+    public ByteBuffer read(InputStream stream) throws IOException {
+        if (!_buffer.hasArray())
+            throw new IllegalStateException("Streams need a heap buffer pool");
+        reset();
+        while (true) {
+            var limit = _frameSize < 0 ? PrefixSize : _frameSize;
+            var array = _buffer.array();
+            var pos = _buffer.position();
+            while (pos < limit) {
+                var got = stream.read(array, pos, limit - pos);
+                if (got < 0)
+                    throw new EOFException(pos + " of " + limit);
+                pos += got;
+            }
+            _buffer.position(pos);
+            if (_frameSize >= 0)
+                return complete();
+            begin();
+        }
+    }
+
+    private void begin() throws IOException {
+        var size = _buffer.getInt(0);
+        if (size < 0 || size > Integer.MAX_VALUE - PrefixSize)
+            throw new IOException("Invalid frame size: " + size);
+        _frameSize = size + PrefixSize;
+        if (_frameSize <= _buffer.capacity())
+            return;
+        var bigger = _pool.acquire(_frameSize);
+        bigger.put(_buffer.flip());
+        _pool.release(_buffer);
+        _buffer = bigger;
+    }
+
+    private ByteBuffer complete() {
+        _done = true;
+        return _buffer.slice(0, _frameSize).order(ByteOrder.nativeOrder());
+    }
+
+    private void reset() {
+        if (!_done)
+            return;
+        if (_buffer.capacity() > InitialSize) {
+            _pool.release(_buffer);
+            _buffer = _pool.acquire(InitialSize);
+        }
+        clear();
+    }
+
+    public void clear() {
+        _buffer.clear();
+        _frameSize = -1;
+        _done = false;
+    }
+
+    @Override
+    public void close() {
+        if (_buffer == null)
+            return;
+        _pool.release(_buffer);
+        _buffer = null;
+    }
+}
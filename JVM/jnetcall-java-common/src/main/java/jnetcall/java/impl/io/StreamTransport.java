@@ -1,31 +1,68 @@
 package jnetcall.java.impl.io;
 
+import jnetbase.java.io.GrowableStream;
 import jnetbase.java.io.IRewindable;
+import jnetcall.java.api.enc.IByteEncoding;
 import jnetcall.java.api.enc.IEncoding;
 import jnetcall.java.api.io.IPullTransport;
 import jnetcall.java.api.io.ISendTransport;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 public final class StreamTransport implements ISendTransport, IPullTransport, AutoCloseable {
 
     private final IEncoding<byte[]> _encoding;
     private final InputStream _streamIn;
     private final OutputStream _streamOut;
+    private final FrameDecoder _decoder;
+    private final int _batchSize;
+    private final long _lingerNanos;
+    private final Queue<byte[]> _outgoing;
+    private final AtomicInteger _pending;
+    private final GrowableStream _batch;
+    private final Thread _writer;
+
+    private volatile boolean _closed;
+    private volatile IOException _failure;
 
     public StreamTransport(IEncoding<byte[]> encoding,
                             InputStream streamIn, OutputStream streamOut) {
+        this(encoding, streamIn, streamOut, 0, Duration.ZERO);
+    }
+
+    public StreamTransport(IEncoding<byte[]> encoding,
+                           InputStream streamIn, OutputStream streamOut,
+                           int batchSize, Duration linger) {
         _encoding = encoding;
         _streamIn = streamIn;
         _streamOut = streamOut;
+        _decoder = new FrameDecoder();
+        _batchSize = batchSize;
+        _lingerNanos = linger.toNanos();
+        _outgoing = new ConcurrentLinkedQueue<>();
+        _pending = new AtomicInteger();
+        _batch = new GrowableStream(Math.max(batchSize, 256));
+        if (batchSize <= 0) {
+            _writer = null;
+            return;
+        }
+        _writer = new Thread(this::writeLoop, getClass().getSimpleName() + "|Write");
+        _writer.setDaemon(true);
+        _writer.start();
     }
 
     @Override
     public <T> T pull(Class<T> clazz) {
         try {
-            var bytes = StreamTools.readWithSize(_streamIn);
-            return _encoding.decode(bytes, clazz);
+            var frame = _decoder.read(_streamIn);
+            return IByteEncoding.decode(_encoding, frame, clazz);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -35,19 +72,76 @@ public final class StreamTransport implements ISendTransport, IPullTransport, Au
     public <T> void send(T payload) {
         try {
             var bytes = _encoding.encode(payload);
-            _streamOut.write(bytes, 0, bytes.length);
-            _streamOut.flush();
-            if (_streamOut instanceof IRewindable r)
-                r.rewind(bytes.length);
+            if (_batchSize <= 0) {
+                _streamOut.write(bytes, 0, bytes.length);
+                _streamOut.flush();
+                if (_streamOut instanceof IRewindable r)
+                    r.rewind(bytes.length);
+                return;
+            }
+            var failure = _failure;
+            if (failure != null)
+                throw failure;
+            // Only queued here, the writer thread does the waiting and writing
+            _outgoing.add(bytes);
+            var pending = _pending.addAndGet(bytes.length);
+            if (pending == bytes.length || pending >= _batchSize)
+                LockSupport.unpark(_writer);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void writeLoop() {
+        try {
+            while (true) {
+                if (_outgoing.isEmpty()) {
+                    if (_closed)
+                        break;
+                    LockSupport.park(this);
+                    continue;
+                }
+                linger();
+                byte[] next;
+                while ((next = _outgoing.poll()) != null) {
+                    _pending.addAndGet(-next.length);
+                    _batch.write(next, 0, next.length);
+                }
+                try {
+                    _batch.writeTo(_streamOut);
+                    _streamOut.flush();
+                    if (_streamOut instanceof IRewindable r)
+                        r.rewind(_batch.size());
+                } finally {
+                    _batch.reset();
+                }
+            }
+        } catch (IOException e) {
+            if (!_closed)
+                _failure = e;
+        }
+    }
+
+    private void linger() {
+        var deadline = System.nanoTime() + _lingerNanos;
+        long left;
+        while (!_closed && _pending.get() < _batchSize && (left = deadline - System.nanoTime()) > 0)
+            LockSupport.parkNanos(this, left);
+    }
+
+    private static final long CloseWaitMs = 1000;
+
     @Override
     public void close() throws Exception {
+        _closed = true;
+        if (_writer != null) {
+            // Lets the writer get rid of what was sent so far
+            LockSupport.unpark(_writer);
+            _writer.join(CloseWaitMs);
+        }
         _streamOut.close();
         _streamIn.close();
+        _decoder.close();
         _encoding.close();
     }
 }
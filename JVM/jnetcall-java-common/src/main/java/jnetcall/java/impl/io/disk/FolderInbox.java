@@ -0,0 +1,120 @@
+package jnetcall.java.impl.io.disk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.*;
+
+// Handled IDs are logged and synced in groups before their files go away
+final class FolderInbox implements AutoCloseable {
+
+    private static final String LogFile = "inbox.log";
+    private static final int MaxLogged = 1 << 12;
+
+    private record Done(String id, Path data, Path marker) {
+    }
+
+    private final Set<String> _seen;
+    private final Queue<Done> _done;
+    private final FileChannel _log;
+    private final Thread _thread;
+
+    private int _logged;
+    private volatile boolean _running;
+
+    FolderInbox(Path folder, String prefix, String suffix) throws IOException {
+        _seen = ConcurrentHashMap.newKeySet();
+        _done = new ConcurrentLinkedQueue<>();
+        var logPath = folder.resolve(LogFile);
+        _log = FileChannel.open(logPath, CREATE, WRITE, APPEND);
+        // Anything still logged was handled before a crash and only needs its files removed
+        for (var id : Files.readAllLines(logPath, StandardCharsets.US_ASCII)) {
+            if (id.isBlank())
+                continue;
+            var data = folder.resolve(prefix + id);
+            Files.deleteIfExists(data);
+            Files.deleteIfExists(Path.of(data + suffix));
+        }
+        _log.truncate(0);
+        _log.force(false);
+        _running = true;
+        _thread = new Thread(this::loop, FolderTransport.class.getSimpleName() + "|Ack");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    // False if the message was handled already or is being handled right now
+    boolean begin(String id) {
+        return _seen.add(id);
+    }
+
+    void abort(String id) {
+        _seen.remove(id);
+    }
+
+    void complete(String id, Path data, Path marker) {
+        _done.add(new Done(id, data, marker));
+        LockSupport.unpark(_thread);
+    }
+
+    private void loop() {
+        while (_running || !_done.isEmpty()) {
+            if (_done.isEmpty())
+                LockSupport.park(this);
+            var group = new ArrayList<Done>();
+            Done next;
+            while ((next = _done.poll()) != null)
+                group.add(next);
+            if (group.isEmpty())
+                continue;
+            try {
+                commit(group);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void commit(List<Done> group) throws IOException {
+        var text = new StringBuilder();
+        for (var item : group)
+            text.append(item.id()).append('\n');
+        var bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII));
+        while (bytes.hasRemaining())
+            _log.write(bytes);
+        _log.force(false);
+        _logged += group.size();
+        // The data goes first, so a sender never finds an orphan to replay
+        for (var item : group) {
+            Files.deleteIfExists(item.data());
+            Files.deleteIfExists(item.marker());
+            _seen.remove(item.id());
+        }
+        if (_logged >= MaxLogged && _done.isEmpty()) {
+            _log.truncate(0);
+            _log.force(false);
+            _logged = 0;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        _running = false;
+        LockSupport.unpark(_thread);
+        _thread.join(1000);
+        if (_done.isEmpty())
+            _log.truncate(0);
+        _log.close();
+    }
+}
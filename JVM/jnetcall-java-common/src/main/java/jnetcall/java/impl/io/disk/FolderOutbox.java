@@ -0,0 +1,191 @@
+package jnetcall.java.impl.io.disk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.*;
+
+// Written messages become visible in groups: one round of fsyncs, then their markers
+final class FolderOutbox implements AutoCloseable {
+
+    private record Pending(Path data, FileChannel channel) {
+    }
+
+    private final Path _folder;
+    private final String _prefix;
+    private final String _suffix;
+    private final Queue<Pending> _pending;
+    private final Thread _thread;
+
+    private long _written;
+    private long _committed;
+    private long _failed;
+    private IOException _failure;
+    private volatile boolean _running;
+
+    FolderOutbox(Path folder, String prefix, String suffix) throws IOException {
+        _folder = folder;
+        _prefix = prefix;
+        _suffix = suffix;
+        _pending = new ConcurrentLinkedQueue<>();
+        _running = true;
+        replay();
+        _thread = new Thread(this::loop, FolderTransport.class.getSimpleName() + "|Commit");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    // Data files without a marker were written but never committed
+    private void replay() throws IOException {
+        List<Path> found;
+        try (var files = Files.list(_folder)) {
+            found = files.filter(f -> {
+                var name = f.getFileName().toString();
+                return name.startsWith(_prefix) && !name.endsWith(_suffix)
+                        && !Files.exists(Path.of(f + _suffix));
+            }).sorted().toList();
+        }
+        var group = new ArrayList<Pending>();
+        for (var data : found) {
+            if (!isComplete(data)) {
+                Files.deleteIfExists(data);
+                continue;
+            }
+            group.add(new Pending(data, FileChannel.open(data, READ, WRITE)));
+        }
+        commit(group);
+        if (_failure != null)
+            throw _failure;
+    }
+
+    private static boolean isComplete(Path data) throws IOException {
+        try (var channel = FileChannel.open(data, READ)) {
+            var size = channel.size();
+            if (size < 4)
+                return false;
+            var prefix = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+            channel.read(prefix, 0);
+            return 4L + prefix.getInt(0) == size;
+        }
+    }
+
+    // Returns the highest epoch found, so new names never collide with old ones
+    static long findLastEpoch(Path folder, String prefix) throws IOException {
+        try (var files = Files.list(folder)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(n -> n.startsWith(prefix))
+                    .mapToLong(n -> {
+                        var end = n.indexOf('_', prefix.length());
+                        try {
+                            return end < 0 ? -1 : Long.parseLong(n, prefix.length(), end, 10);
+                        } catch (NumberFormatException e) {
+                            return -1;
+                        }
+                    }).max().orElse(-1);
+        }
+    }
+
+    void write(Path data, byte[] bytes) throws IOException {
+        var channel = FileChannel.open(data, CREATE_NEW, WRITE);
+        try {
+            var buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        synchronized (this) {
+            _written++;
+        }
+        _pending.add(new Pending(data, channel));
+        LockSupport.unpark(_thread);
+    }
+
+    private void loop() {
+        while (_running) {
+            if (_pending.isEmpty())
+                LockSupport.park(this);
+            var group = new ArrayList<Pending>();
+            Pending next;
+            while ((next = _pending.poll()) != null)
+                group.add(next);
+            if (group.isEmpty())
+                continue;
+            var done = commit(group);
+            synchronized (this) {
+                _committed += done;
+                _failed += group.size() - done;
+                notifyAll();
+            }
+        }
+    }
+
+    // Returns how many got their marker, the others are left for the next replay
+    private int commit(List<Pending> group) {
+        var done = 0;
+        try {
+            for (var item : group)
+                item.channel().force(true);
+            forceFolder();
+            for (var item : group) {
+                Files.write(Path.of(item.data() + _suffix), new byte[1]);
+                done++;
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                _failure = e;
+            }
+        } finally {
+            for (var item : group)
+                closeQuietly(item.channel());
+        }
+        return done;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to lose
+        }
+    }
+
+    private void forceFolder() {
+        try (var channel = FileChannel.open(_folder, READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not every platform can sync a directory
+        }
+    }
+
+    // Fails once for every commit that broke since the last call
+    synchronized void flush() throws InterruptedException, IOException {
+        var target = _written;
+        while (_committed + _failed < target && _running)
+            wait(10);
+        var failure = _failure;
+        _failure = null;
+        if (failure != null)
+            throw new IOException("Commit failed", failure);
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            flush();
+        } finally {
+            _running = false;
+            LockSupport.unpark(_thread);
+        }
+    }
+}
@@ -9,9 +9,12 @@ import jnetcall.java.api.io.ISendTransport;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
@@ -24,14 +27,27 @@ public final class FolderTransport implements ISendTransport, IPushTransport, Au
     private final Path _outputFolder;
     private final Executor _executor;
     private final int _wait;
+    private final long _epoch;
+    private final FolderOutbox _outbox;
+    private final FolderInbox _inbox;
 
     public FolderTransport(IEncoding<byte[]> encoding, Path input, Path output, Executor executor) {
+        this(encoding, input, output, executor, false);
+    }
+
+    // Durable mode keeps messages across restarts and delivers them at least once
+    public FolderTransport(IEncoding<byte[]> encoding, Path input, Path output, Executor executor,
+                           boolean durable) {
         _executor = executor;
         _encoding = encoding;
         try {
             _inputFolder = createFolder(input);
-            _inputWatch = startWatch();
             _outputFolder = createFolder(output);
+            _epoch = Math.max(System.currentTimeMillis(),
+                    FolderOutbox.findLastEpoch(_outputFolder, Prefix) + 1);
+            _outbox = durable ? new FolderOutbox(_outputFolder, Prefix, Suffix) : null;
+            _inbox = durable ? new FolderInbox(_inputFolder, Prefix, Suffix) : null;
+            _inputWatch = startWatch();
             _wait = 5;
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -41,10 +57,19 @@ public final class FolderTransport implements ISendTransport, IPushTransport, Au
     private static final String Prefix = "d_";
     private static final String Suffix = ".s";
 
+    // Poll the folder every N ms for file systems with slow or missing notifications
+    private static final String PollKey = "jnetcall.folder.poll";
+    // Handle messages on N threads, which gives up their order
+    private static final String WorkersKey = "jnetcall.folder.workers";
+
     private FileSystemWatcher startWatch() {
         var watcher = new FileSystemWatcher(_inputFolder, _executor, ENTRY_CREATE);
         watcher.setFileFilter(FolderTransport::checkName);
         watcher.setCallback(this::onCreated);
+        var poll = Long.getLong(PollKey, 0);
+        if (poll > 0)
+            watcher.setPollInterval(Duration.ofMillis(poll));
+        watcher.setWorkers(Integer.getInteger(WorkersKey, 0));
         watcher.enableRaisingEvents(true);
         return watcher;
     }
@@ -68,18 +93,40 @@ public final class FolderTransport implements ISendTransport, IPushTransport, Au
         }
         _onPush = file -> {
             try {
+                if (_inbox != null) {
+                    getDurable(file, clazz, data);
+                    return;
+                }
                 var msg = get(file, clazz);
                 data.accept(msg);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
         };
+        if (_inbox != null)
+            _executor.createThread(this::replay, getClass().getSimpleName() + "|Replay");
+    }
+
+    // Markers written while nobody listened
+    private void replay() {
+        try {
+            List<Path> found;
+            try (var files = Files.list(_inputFolder)) {
+                found = files.filter(f -> checkName(null, f.getFileName().toString()))
+                        .sorted().toList();
+            }
+            for (var file : found)
+                onCreated(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private void onCreated(Path path) {
-        if (_onPush == null)
+        var onPush = _onPush;
+        if (onPush == null)
             return;
-        _onPush.accept(path.toString());
+        onPush.accept(path.toString());
     }
 
     private <T> T get(String sFile, Class<T> clazz) throws Exception {
@@ -100,10 +147,35 @@ public final class FolderTransport implements ISendTransport, IPushTransport, Au
         return msg;
     }
 
-    private static final AtomicInteger _fileId = new AtomicInteger();
+    private <T> void getDurable(String sFile, Class<T> clazz, Consumer<T> data) throws Exception {
+        var dFile = sFile.substring(0, sFile.length() - Suffix.length());
+        var id = Path.of(dFile).getFileName().toString().substring(Prefix.length());
+        if (!_inbox.begin(id))
+            return;
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(Path.of(dFile));
+        } catch (NoSuchFileException e) {
+            // Handled already, only the marker was left over
+            Files.deleteIfExists(Path.of(sFile));
+            _inbox.abort(id);
+            return;
+        }
+        try {
+            var msg = _encoding.decode(bytes, clazz);
+            data.accept(msg);
+        } catch (Exception e) {
+            _inbox.abort(id);
+            throw e;
+        }
+        _inbox.complete(id, Path.of(dFile), Path.of(sFile));
+    }
+
+    // Shared, so transports started in the same millisecond still get their own names
+    private static final AtomicLong _fileId = new AtomicLong();
 
-    private static int getNextId() {
-        return _fileId.incrementAndGet();
+    private String getNextId() {
+        return String.format("%013d_%010d", _epoch, _fileId.incrementAndGet());
     }
 
     @Override
@@ -111,6 +183,10 @@ public final class FolderTransport implements ISendTransport, IPushTransport, Au
         try {
             var bytes = _encoding.encode(payload);
             var pathData = _outputFolder.resolve(Prefix + getNextId());
+            if (_outbox != null) {
+                _outbox.write(pathData, bytes);
+                return;
+            }
             Files.deleteIfExists(pathData);
             Files.write(pathData, bytes);
             var pathMark = Path.of(pathData + Suffix);
@@ -121,12 +197,22 @@ public final class FolderTransport implements ISendTransport, IPushTransport, Au
         }
     }
 
+    // Waits until everything sent so far is synced and visible to the reader
+    public void flush() throws InterruptedException, IOException {
+        if (_outbox != null)
+            _outbox.flush();
+    }
+
     @Override
     public void close() throws Exception {
         _inputWatch.enableRaisingEvents(false);
         _inputWatch.setCallback(null);
         _inputWatch.close();
         _onPush = null;
+        if (_outbox != null)
+            _outbox.close();
+        if (_inbox != null)
+            _inbox.close();
         _encoding.close();
     }
 }
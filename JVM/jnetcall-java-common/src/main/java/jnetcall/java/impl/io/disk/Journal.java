@@ -0,0 +1,69 @@
+package jnetcall.java.impl.io.disk;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+// Segments hold 8 byte aligned frames; a zero size means not yet written, Rolled means go on in the next segment
+final class Journal {
+
+    static final int Rolled = -1;
+    static final int PrefixSize = 4;
+    static final int Alignment = 8;
+
+    static final VarHandle Ints =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    static final VarHandle Longs =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final String Prefix = "j_";
+    private static final String Suffix = ".seg";
+    private static final String Temp = ".tmp";
+
+    private static final long MinParkNanos = 20_000;
+    private static final long MaxParkNanos = 2_000_000;
+
+    private Journal() {
+    }
+
+    static int align(int size) {
+        return (size + Alignment - 1) & -Alignment;
+    }
+
+    static Path getSegment(Path folder, long index) {
+        return folder.resolve(String.format("%s%012d%s", Prefix, index, Suffix));
+    }
+
+    static Path getTemp(Path folder, long index) {
+        return Path.of(getSegment(folder, index) + Temp);
+    }
+
+    static long getIndex(Path file) {
+        var name = file.getFileName().toString();
+        if (!name.startsWith(Prefix) || !name.endsWith(Suffix))
+            return -1;
+        try {
+            return Long.parseLong(name, Prefix.length(), name.length() - Suffix.length(), 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static long findLast(Path folder) throws IOException {
+        try (var files = Files.list(folder)) {
+            return files.mapToLong(Journal::getIndex).max().orElse(-1);
+        }
+    }
+
+    static long await(long parkNanos) throws InterruptedIOException {
+        LockSupport.parkNanos(parkNanos);
+        if (Thread.currentThread().isInterrupted())
+            throw new InterruptedIOException();
+        return parkNanos <= 0 ? MinParkNanos : Math.min(parkNanos << 1, MaxParkNanos);
+    }
+}
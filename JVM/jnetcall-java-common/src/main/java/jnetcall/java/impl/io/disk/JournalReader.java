@@ -0,0 +1,108 @@
+package jnetcall.java.impl.io.disk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.*;
+
+// The acknowledged offset lives in a small mapped file: segment (I64) at 0, position (I64) at 8
+final class JournalReader implements Closeable {
+
+    private static final String OffsetFile = "reader.pos";
+    private static final int Segment = 0;
+    private static final int Position = 8;
+
+    private final Path _folder;
+    private final MappedByteBuffer _offset;
+
+    private long _index;
+    private MappedByteBuffer _segment;
+    private int _position;
+    private int _pending;
+
+    private volatile boolean _closed;
+
+    JournalReader(Path folder) throws IOException {
+        _folder = folder;
+        try (var channel = FileChannel.open(folder.resolve(OffsetFile), CREATE, READ, WRITE)) {
+            _offset = channel.map(FileChannel.MapMode.READ_WRITE, 0, 16);
+        }
+        _index = (long) Journal.Longs.getAcquire(_offset, Segment);
+        _position = (int) (long) Journal.Longs.getAcquire(_offset, Position);
+        reclaim();
+    }
+
+    // Frames stay valid until the next read
+    synchronized ByteBuffer read() throws IOException {
+        var parkNanos = 0L;
+        while (true) {
+            if (_closed)
+                throw new ClosedChannelException();
+            if (_segment == null && !open()) {
+                parkNanos = Journal.await(parkNanos);
+                continue;
+            }
+            var size = _position + Journal.PrefixSize <= _segment.capacity()
+                    ? (int) Journal.Ints.getAcquire(_segment, _position) : Journal.Rolled;
+            if (size == 0) {
+                parkNanos = Journal.await(parkNanos);
+                continue;
+            }
+            if (size == Journal.Rolled) {
+                _segment = null;
+                _index++;
+                _position = 0;
+                commit();
+                reclaim();
+                continue;
+            }
+            _pending = Journal.align(Journal.PrefixSize + size);
+            return _segment.slice(_position, Journal.PrefixSize + size).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    synchronized void ack() {
+        if (_pending == 0)
+            return;
+        _position += _pending;
+        _pending = 0;
+        commit();
+    }
+
+    private void commit() {
+        Journal.Longs.setRelease(_offset, Position, (long) _position);
+        Journal.Longs.setRelease(_offset, Segment, _index);
+    }
+
+    private boolean open() throws IOException {
+        try (var channel = FileChannel.open(Journal.getSegment(_folder, _index), READ)) {
+            _segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private void reclaim() throws IOException {
+        try (var files = Files.list(_folder)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var index = Journal.getIndex(file);
+                if (index >= 0 && index < _index)
+                    Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        _closed = true;
+    }
+}
@@ -0,0 +1,69 @@
+package jnetcall.java.impl.io.disk;
+
+import jnetcall.java.api.enc.IByteEncoding;
+import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.api.io.IPullTransport;
+import jnetcall.java.api.io.ISendTransport;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class JournalTransport implements ISendTransport, IPullTransport, AutoCloseable {
+
+    private static final int DefaultSegmentSize = 1 << 22;
+
+    private final IEncoding<byte[]> _encoding;
+    private final JournalReader _reader;
+    private final JournalWriter _writer;
+
+    public JournalTransport(IEncoding<byte[]> encoding, Path input, Path output) {
+        this(encoding, input, output, DefaultSegmentSize);
+    }
+
+    public JournalTransport(IEncoding<byte[]> encoding, Path input, Path output, int segmentSize) {
+        _encoding = encoding;
+        try {
+            _reader = new JournalReader(createFolder(input));
+            _writer = new JournalWriter(createFolder(output), segmentSize);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Path createFolder(Path folder) throws IOException {
+        folder = folder.toAbsolutePath();
+        return Files.isDirectory(folder) ? folder : Files.createDirectories(folder);
+    }
+
+    @Override
+    public <T> void send(T payload) {
+        try {
+            var bytes = _encoding.encode(payload);
+            _writer.append(bytes);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T pull(Class<T> clazz) {
+        try {
+            synchronized (_reader) {
+                var frame = _reader.read();
+                var msg = IByteEncoding.decode(_encoding, frame, clazz);
+                _reader.ack();
+                return msg;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        _reader.close();
+        _writer.close();
+        _encoding.close();
+    }
+}
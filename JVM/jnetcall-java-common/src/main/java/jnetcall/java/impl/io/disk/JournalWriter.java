@@ -0,0 +1,85 @@
+package jnetcall.java.impl.io.disk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.*;
+
+final class JournalWriter implements Closeable {
+
+    private final Path _folder;
+    private final int _segmentSize;
+
+    private long _index;
+    private MappedByteBuffer _segment;
+    private int _position;
+
+    JournalWriter(Path folder, int segmentSize) throws IOException {
+        _folder = folder;
+        _segmentSize = Journal.align(segmentSize);
+        var last = Journal.findLast(folder);
+        if (last < 0)
+            open(0, segmentSize);
+        else
+            resume(last);
+    }
+
+    private void resume(long index) throws IOException {
+        try (var channel = FileChannel.open(Journal.getSegment(_folder, index), READ, WRITE)) {
+            _segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        _index = index;
+        _position = 0;
+        while (_position + Journal.PrefixSize <= _segment.capacity()) {
+            var size = (int) Journal.Ints.getAcquire(_segment, _position);
+            if (size == 0)
+                return;
+            if (size == Journal.Rolled) {
+                roll(0);
+                return;
+            }
+            _position += Journal.align(Journal.PrefixSize + size);
+        }
+        roll(0);
+    }
+
+    // Segments appear under their final name only once they are fully sized
+    private void open(long index, int size) throws IOException {
+        var temp = Journal.getTemp(_folder, index);
+        try (var channel = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            _segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        Files.move(temp, Journal.getSegment(_folder, index), ATOMIC_MOVE);
+        _index = index;
+        _position = 0;
+    }
+
+    private void roll(int needed) throws IOException {
+        if (_position + Journal.PrefixSize <= _segment.capacity())
+            Journal.Ints.setRelease(_segment, _position, Journal.Rolled);
+        open(_index + 1, Math.max(_segmentSize, Journal.align(needed) + Journal.Alignment));
+    }
+
+    // The frame carries its own size prefix, which is published last
+    synchronized void append(byte[] frame) throws IOException {
+        if (frame.length <= Journal.PrefixSize)
+            throw new IOException("Invalid frame of " + frame.length + " B");
+        var size = Journal.align(frame.length);
+        if (_position + size + Journal.PrefixSize > _segment.capacity())
+            roll(frame.length);
+        _segment.put(_position + Journal.PrefixSize, frame, Journal.PrefixSize,
+                frame.length - Journal.PrefixSize);
+        Journal.Ints.setRelease(_segment, _position, frame.length - Journal.PrefixSize);
+        _position += size;
+    }
+
+    @Override
+    public synchronized void close() {
+        _segment = null;
+    }
+}
@@ -0,0 +1,169 @@
+package jnetcall.java.impl.io.mem;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.locks.LockSupport;
+
+// Header: head (I64) at 0, writer closed (I32) at 8, magic (I32) at 16, capacity (I32) at 20,
+// tail (I64) at 64, reader closed (I32) at 72
+final class RingBuffer implements ReadableByteChannel {
+
+    static final int HeaderSize = 128;
+
+    private static final int Head = 0;
+    private static final int WriterClosed = 8;
+    private static final int Magic = 16;
+    private static final int Capacity = 20;
+    private static final int Tail = 64;
+    private static final int ReaderClosed = 72;
+
+    private static final int MagicValue = 0x4A4E5231;
+
+    private static final boolean CanSpin = Runtime.getRuntime().availableProcessors() > 1;
+    private static final int MinSpins = 1 << 6;
+    private static final int MaxSpins = 1 << 14;
+    private static final int YieldCount = 64;
+    private static final long MinParkNanos = 1_000;
+    private static final long MaxParkNanos = 1_000_000;
+
+    private static final VarHandle Longs =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle Ints =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer _header;
+    private final ByteBuffer _data;
+    private final int _mask;
+
+    private volatile boolean _closed;
+
+    // Spins granted before yielding, only used by the one thread on this side
+    private int _spins = CanSpin ? MaxSpins : 0;
+
+    RingBuffer(ByteBuffer region) {
+        _header = region.slice(0, HeaderSize);
+        _data = region.slice(HeaderSize, region.capacity() - HeaderSize);
+        _mask = _data.capacity() - 1;
+    }
+
+    static int getSize(int capacity) {
+        return HeaderSize + capacity;
+    }
+
+    void reset() {
+        Longs.setRelease(_header, Head, 0L);
+        Longs.setRelease(_header, Tail, 0L);
+        Ints.setRelease(_header, WriterClosed, 0);
+        Ints.setRelease(_header, ReaderClosed, 0);
+        Ints.setRelease(_header, Capacity, _data.capacity());
+        Ints.setRelease(_header, Magic, MagicValue);
+    }
+
+    // Fails for a region the other side did not set up, or set up with another size
+    void check() throws IOException {
+        var magic = (int) Ints.getAcquire(_header, Magic);
+        if (magic != MagicValue)
+            throw new IOException("No ring found: " + Integer.toHexString(magic));
+        var capacity = (int) Ints.getAcquire(_header, Capacity);
+        if (capacity != _data.capacity())
+            throw new IOException("Ring of " + capacity + " mapped as " + _data.capacity());
+    }
+
+    private int await(int idle) throws InterruptedIOException {
+        if (idle < _spins)
+            Thread.onSpinWait();
+        else if (idle < _spins + YieldCount)
+            Thread.yield();
+        else {
+            // Backs off the longer the other side stays quiet
+            var park = MinParkNanos << (idle - _spins - YieldCount);
+            LockSupport.parkNanos(Math.min(park, MaxParkNanos));
+            if (Thread.currentThread().isInterrupted())
+                throw new InterruptedIOException();
+            if (park >= MaxParkNanos)
+                return idle;
+        }
+        return idle + 1;
+    }
+
+    // Spins longer if that was enough last time, shorter if it had to park anyway
+    private void adapt(int idle) {
+        if (!CanSpin || idle == 0)
+            return;
+        if (idle <= _spins)
+            _spins = Math.min(_spins << 1, MaxSpins);
+        else if (idle > _spins + YieldCount)
+            _spins = Math.max(_spins >> 1, MinSpins);
+    }
+
+    void write(ByteBuffer src) throws IOException {
+        var head = (long) Longs.getOpaque(_header, Head);
+        var idle = 0;
+        while (src.hasRemaining()) {
+            var used = (int) (head - (long) Longs.getAcquire(_header, Tail));
+            var free = _data.capacity() - used;
+            if (free == 0) {
+                if (_closed || (int) Ints.getAcquire(_header, ReaderClosed) != 0)
+                    throw new ClosedChannelException();
+                idle = await(idle);
+                continue;
+            }
+            adapt(idle);
+            idle = 0;
+            var offset = (int) (head & _mask);
+            var count = Math.min(Math.min(free, src.remaining()), _data.capacity() - offset);
+            _data.put(offset, src, src.position(), count);
+            src.position(src.position() + count);
+            head += count;
+            Longs.setRelease(_header, Head, head);
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        if (!dst.hasRemaining())
+            return 0;
+        var tail = (long) Longs.getOpaque(_header, Tail);
+        var idle = 0;
+        while (true) {
+            var finished = (int) Ints.getAcquire(_header, WriterClosed) != 0;
+            var available = (int) ((long) Longs.getAcquire(_header, Head) - tail);
+            if (available > 0) {
+                adapt(idle);
+                var offset = (int) (tail & _mask);
+                var count = Math.min(Math.min(available, dst.remaining()), _data.capacity() - offset);
+                dst.put(dst.position(), _data, offset, count);
+                dst.position(dst.position() + count);
+                Longs.setRelease(_header, Tail, tail + count);
+                return count;
+            }
+            if (finished)
+                return -1;
+            if (_closed)
+                throw new ClosedChannelException();
+            idle = await(idle);
+        }
+    }
+
+    void closeWriter() {
+        _closed = true;
+        Ints.setRelease(_header, WriterClosed, 1);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !_closed;
+    }
+
+    @Override
+    public void close() {
+        _closed = true;
+        Ints.setRelease(_header, ReaderClosed, 1);
+    }
+}
@@ -0,0 +1,110 @@
+package jnetcall.java.impl.io.mem;
+
+import jnetcall.java.api.enc.IByteEncoding;
+import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.api.io.IPullTransport;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.FrameDecoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.*;
+
+public final class SharedMemoryTransport implements ISendTransport, IPullTransport, AutoCloseable {
+
+    private static final int MinCapacity = 1 << 12;
+
+    private final IEncoding<byte[]> _encoding;
+    private final Path _file;
+    private final boolean _host;
+    private final FileChannel _channel;
+    private final RingBuffer _out;
+    private final RingBuffer _in;
+    private final FrameDecoder _decoder;
+    private final Object _sendSync;
+
+    public SharedMemoryTransport(IEncoding<byte[]> encoding, Path file, int capacity, boolean host) {
+        _encoding = encoding;
+        _file = file.toAbsolutePath();
+        _host = host;
+        _decoder = new FrameDecoder();
+        _sendSync = new Object();
+        var size = RingBuffer.getSize(toCapacity(capacity));
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(_file.getParent());
+            _channel = channel = FileChannel.open(_file, CREATE, READ, WRITE);
+            var region = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * size)
+                    .order(ByteOrder.nativeOrder());
+            var first = new RingBuffer(region.slice(0, size));
+            var second = new RingBuffer(region.slice(size, size));
+            if (host) {
+                first.reset();
+                second.reset();
+            } else {
+                first.check();
+                second.check();
+            }
+            _out = host ? first : second;
+            _in = host ? second : first;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null)
+            return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already failing
+        }
+    }
+
+    private static int toCapacity(int capacity) {
+        if (capacity <= MinCapacity)
+            return MinCapacity;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    @Override
+    public <T> void send(T payload) {
+        try {
+            var bytes = _encoding.encode(payload);
+            synchronized (_sendSync) {
+                _out.write(ByteBuffer.wrap(bytes));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T pull(Class<T> clazz) {
+        try {
+            synchronized (_decoder) {
+                var frame = _decoder.read(_in);
+                return IByteEncoding.decode(_encoding, frame, clazz);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        _out.closeWriter();
+        _in.close();
+        _channel.close();
+        _encoding.close();
+        if (_host)
+            Files.deleteIfExists(_file);
+    }
+}
@@ -0,0 +1,430 @@
+package jnetcall.java.impl.io.net;
+
+import jnetbase.java.io.BufferPool;
+import jnetcall.java.api.enc.IByteEncoding;
+import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.api.io.IPullTransport;
+import jnetcall.java.api.io.ISendTransport;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Data: type (I8), session, seq, index, count, length, offset (I32 each), then the chunk
+// Ack: type (I8), session, seq, count (I32 each), done (I8), then a bitmap of received chunks
+public final class ReliableUdpTransport implements ISendTransport, IPullTransport, AutoCloseable {
+
+    private static final byte Data = 1;
+    private static final byte Ack = 2;
+
+    private static final int DataHeader = 1 + 6 * 4;
+    private static final int AckHeader = 1 + 3 * 4 + 1;
+    private static final int MaxDatagram = 65507;
+    private static final int DefaultChunkSize = 1200;
+    private static final int DefaultMaxMessage = 64 << 20;
+
+    private static final int Window = 128;
+    private static final int AckEvery = 32;
+    private static final int MaxRetries = 100;
+    private static final int MaxTracked = 1 << 12;
+    private static final int MaxIncomplete = 1 << 8;
+    private static final long RetryNanos = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long NackNanos = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long ExpiryNanos = RetryNanos * MaxRetries * 2;
+
+    private static final ByteBuffer Closed = ByteBuffer.allocate(0);
+
+    private final IEncoding<byte[]> _encoding;
+    private final DatagramChannel _receiver;
+    private final DatagramChannel _sender;
+    private final int _chunkSize;
+    private final int _maxMessage;
+    private final int _session;
+    private final BufferPool _pool;
+    private final AtomicInteger _nextSeq;
+    private final Map<Integer, Outgoing> _outgoing;
+    private final BlockingQueue<ByteBuffer> _inputs;
+    private final Thread _receive;
+    private final Thread _resend;
+
+    // Only touched by the receiving thread
+    private final Map<Integer, Incoming> _incoming;
+    private final Set<Integer> _delivered;
+    private int _peerSession;
+    private int _deliveredFloor;
+    private long _lastExpiry;
+
+    private volatile boolean _running;
+    private volatile IOException _failure;
+
+    public ReliableUdpTransport(IEncoding<byte[]> encoding,
+                                String hostIn, int portIn, String hostOut, int portOut) {
+        this(encoding, hostIn, portIn, hostOut, portOut, DefaultChunkSize);
+    }
+
+    public ReliableUdpTransport(IEncoding<byte[]> encoding,
+                                String hostIn, int portIn, String hostOut, int portOut,
+                                int chunkSize) {
+        this(encoding, hostIn, portIn, hostOut, portOut, chunkSize, DefaultMaxMessage);
+    }
+
+    public ReliableUdpTransport(IEncoding<byte[]> encoding,
+                                String hostIn, int portIn, String hostOut, int portOut,
+                                int chunkSize, int maxMessage) {
+        this(encoding, NetworkTools.toEndPoint(hostIn, portIn),
+                NetworkTools.toEndPoint(hostOut, portOut), chunkSize, maxMessage);
+    }
+
+    private ReliableUdpTransport(IEncoding<byte[]> encoding,
+                                 SocketAddress endPointIn, SocketAddress endPointOut,
+                                 int chunkSize, int maxMessage) {
+        if (chunkSize <= 0 || chunkSize > MaxDatagram - DataHeader)
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        if (maxMessage <= 0)
+            throw new IllegalArgumentException("Invalid max message: " + maxMessage);
+        _encoding = encoding;
+        _chunkSize = chunkSize;
+        _maxMessage = maxMessage;
+        _session = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+        _pool = new BufferPool();
+        _nextSeq = new AtomicInteger();
+        _outgoing = new ConcurrentHashMap<>();
+        _inputs = new LinkedBlockingQueue<>();
+        _incoming = new HashMap<>();
+        _delivered = new HashSet<>();
+        try {
+            _receiver = DatagramChannel.open().bind(endPointIn);
+            _receiver.setOption(StandardSocketOptions.SO_RCVBUF, 1 << 21);
+            _sender = DatagramChannel.open();
+            _sender.connect(endPointOut);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        _running = true;
+        var name = getClass().getSimpleName();
+        _receive = new Thread(this::receiveLoop, name + "|Receive");
+        _receive.setDaemon(true);
+        _receive.start();
+        _resend = new Thread(this::resendLoop, name + "|Resend");
+        _resend.setDaemon(true);
+        _resend.start();
+    }
+
+    private static final class Outgoing {
+        final int seq;
+        final byte[] data;
+        final int count;
+        final BitSet acked;
+        final long[] sentAt;
+        int floor;
+        int next;
+        int retries;
+        long lastActivity;
+
+        Outgoing(int seq, byte[] data, int count) {
+            this.seq = seq;
+            this.data = data;
+            this.count = count;
+            this.acked = new BitSet(count);
+            this.sentAt = new long[count];
+        }
+    }
+
+    private static final class Incoming {
+        final int count;
+        final ByteBuffer data;
+        final BitSet received;
+        int receivedCount;
+        int sinceAck;
+        long lastNack;
+        long lastUpdate;
+
+        Incoming(int count, ByteBuffer data) {
+            this.count = count;
+            this.data = data;
+            this.received = new BitSet(count);
+        }
+    }
+
+    @Override
+    public <T> void send(T payload) {
+        try {
+            var bytes = _encoding.encode(payload);
+            var count = Math.max(1, (bytes.length + _chunkSize - 1) / _chunkSize);
+            var out = new Outgoing(_nextSeq.getAndIncrement(), bytes, count);
+            _outgoing.put(out.seq, out);
+            synchronized (out) {
+                out.lastActivity = System.nanoTime();
+                pump(out);
+            }
+            LockSupport.unpark(_resend);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void pump(Outgoing out) throws IOException {
+        while (out.next < out.count && out.next < out.floor + Window)
+            sendChunk(out, out.next++);
+    }
+
+    private void sendChunk(Outgoing out, int index) throws IOException {
+        var offset = index * _chunkSize;
+        var length = Math.min(_chunkSize, out.data.length - offset);
+        var buffer = _pool.acquire(DataHeader + length);
+        try {
+            buffer.put(Data).putInt(_session).putInt(out.seq).putInt(index)
+                    .putInt(out.count).putInt(out.data.length).putInt(offset)
+                    .put(out.data, offset, length).flip();
+            out.sentAt[index] = System.nanoTime();
+            _sender.write(buffer);
+        } finally {
+            _pool.release(buffer);
+        }
+    }
+
+    private void sendAck(int session, int seq, Incoming in) throws IOException {
+        var bitmap = in == null ? new byte[0] : in.received.toByteArray();
+        var buffer = _pool.acquire(AckHeader + bitmap.length);
+        try {
+            buffer.put(Ack).putInt(session).putInt(seq).putInt(in == null ? 0 : in.count)
+                    .put((byte) (in == null ? 1 : 0)).put(bitmap).flip();
+            _sender.write(buffer);
+        } finally {
+            _pool.release(buffer);
+        }
+    }
+
+    private void receiveLoop() {
+        var buffer = ByteBuffer.allocateDirect(MaxDatagram).order(ByteOrder.nativeOrder());
+        try {
+            while (_running) {
+                buffer.clear();
+                _receiver.receive(buffer);
+                buffer.flip();
+                try {
+                    onDatagram(buffer);
+                } catch (ClosedChannelException e) {
+                    throw e;
+                } catch (IOException | RuntimeException e) {
+                    // Only this datagram is lost, the sender retries
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // Closed on purpose
+        } catch (IOException e) {
+            if (_running)
+                _failure = e;
+        } finally {
+            _inputs.add(Closed);
+        }
+    }
+
+    private void onDatagram(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 1)
+            return;
+        var type = buffer.get();
+        if (type == Data && buffer.remaining() >= DataHeader - 1)
+            onData(buffer);
+        else if (type == Ack && buffer.remaining() >= AckHeader - 1)
+            onAck(buffer);
+    }
+
+    private void onData(ByteBuffer buffer) throws IOException {
+        var session = buffer.getInt();
+        var seq = buffer.getInt();
+        var index = buffer.getInt();
+        var count = buffer.getInt();
+        var length = buffer.getInt();
+        var offset = buffer.getInt();
+        if (index < 0 || index >= count || offset < 0 || (long) offset + buffer.remaining() > length
+                || length > (long) count * MaxDatagram)
+            return;
+        if (session != _peerSession)
+            resetPeer(session);
+        if (isDelivered(seq)) {
+            sendAck(session, seq, null);
+            return;
+        }
+        var now = System.nanoTime();
+        expire(now);
+        var in = _incoming.get(seq);
+        if (in == null) {
+            // Checked before allocating, the sender gives up on it in time
+            if (length > _maxMessage || _incoming.size() >= MaxIncomplete)
+                return;
+            _incoming.put(seq, in = new Incoming(count, _pool.acquire(length)));
+        }
+        // Has to fit what the first chunk announced for this message
+        if (count != in.count || length != in.data.limit())
+            return;
+        in.lastUpdate = now;
+        if (in.received.get(index)) {
+            // A resent chunk means our last acknowledgement got lost
+            if (now - in.lastNack > NackNanos) {
+                in.lastNack = now;
+                sendAck(session, seq, in);
+            }
+            return;
+        }
+        in.data.put(offset, buffer, buffer.position(), buffer.remaining());
+        in.received.set(index);
+        in.receivedCount++;
+        in.sinceAck++;
+        if (in.receivedCount == in.count) {
+            _incoming.remove(seq);
+            markDelivered(seq);
+            _inputs.add(in.data);
+            sendAck(session, seq, null);
+            return;
+        }
+        var gap = in.received.nextClearBit(0) < index;
+        if (in.sinceAck >= AckEvery || (gap && now - in.lastNack > NackNanos)) {
+            in.sinceAck = 0;
+            in.lastNack = now;
+            sendAck(session, seq, in);
+        }
+    }
+
+    private void onAck(ByteBuffer buffer) throws IOException {
+        var session = buffer.getInt();
+        var seq = buffer.getInt();
+        buffer.getInt();
+        var done = buffer.get() != 0;
+        if (session != _session)
+            return;
+        var out = _outgoing.get(seq);
+        if (out == null)
+            return;
+        synchronized (out) {
+            if (done) {
+                _outgoing.remove(seq);
+                return;
+            }
+            var received = BitSet.valueOf(buffer);
+            out.acked.or(received);
+            out.floor = out.acked.nextClearBit(out.floor);
+            out.retries = 0;
+            var now = out.lastActivity = System.nanoTime();
+            var highest = received.length() - 1;
+            for (var i = out.acked.nextClearBit(out.floor); i < highest; i = out.acked.nextClearBit(i + 1))
+                if (now - out.sentAt[i] > NackNanos)
+                    sendChunk(out, i);
+            pump(out);
+        }
+    }
+
+    private void resendLoop() {
+        while (_running) {
+            if (_outgoing.isEmpty())
+                LockSupport.park(this);
+            else
+                LockSupport.parkNanos(this, RetryNanos);
+            var now = System.nanoTime();
+            for (var out : _outgoing.values())
+                synchronized (out) {
+                    if (now - out.lastActivity < RetryNanos)
+                        continue;
+                    if (++out.retries > MaxRetries) {
+                        _outgoing.remove(out.seq);
+                        continue;
+                    }
+                    out.lastActivity = now;
+                    try {
+                        var sent = 0;
+                        for (var i = out.acked.nextClearBit(out.floor); i < out.next && sent < Window;
+                             i = out.acked.nextClearBit(i + 1), sent++)
+                            sendChunk(out, i);
+                    } catch (IOException e) {
+                        // Counts as a retry, so an unreachable peer is given up on in time
+                    }
+                }
+        }
+    }
+
+    private void resetPeer(int session) {
+        for (var in : _incoming.values())
+            _pool.release(in.data);
+        _incoming.clear();
+        _delivered.clear();
+        _deliveredFloor = 0;
+        _peerSession = session;
+    }
+
+    private boolean isDelivered(int seq) {
+        return seq < _deliveredFloor || _delivered.contains(seq);
+    }
+
+    private void markDelivered(int seq) {
+        _delivered.add(seq);
+        while (_delivered.remove(_deliveredFloor))
+            _deliveredFloor++;
+        if (_delivered.size() > MaxTracked) {
+            // The sender gave up on something, so stop waiting for it
+            _deliveredFloor = _delivered.stream().min(Integer::compare).orElse(_deliveredFloor);
+            while (_delivered.remove(_deliveredFloor))
+                _deliveredFloor++;
+        }
+    }
+
+    private void expire(long now) {
+        if (now - _lastExpiry < ExpiryNanos)
+            return;
+        _lastExpiry = now;
+        var it = _incoming.values().iterator();
+        while (it.hasNext()) {
+            var in = it.next();
+            if (now - in.lastUpdate > ExpiryNanos) {
+                _pool.release(in.data);
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public <T> T pull(Class<T> clazz) {
+        try {
+            var buffer = _inputs.take();
+            if (buffer == Closed) {
+                _inputs.add(Closed);
+                var failure = _failure;
+                if (failure != null)
+                    throw new IOException(failure);
+                throw new ClosedChannelException();
+            }
+            try {
+                return IByteEncoding.decode(_encoding, buffer, clazz);
+            } finally {
+                _pool.release(buffer);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        _running = false;
+        LockSupport.unpark(_resend);
+        _encoding.close();
+        _sender.close();
+        _receiver.close();
+        _outgoing.clear();
+    }
+}
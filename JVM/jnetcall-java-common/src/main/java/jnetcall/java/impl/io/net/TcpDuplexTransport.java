@@ -0,0 +1,239 @@
+package jnetcall.java.impl.io.net;
+
+import jnetbase.java.io.BufferPool;
+import jnetcall.java.api.enc.IByteEncoding;
+import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
+import jnetcall.java.api.io.IPullTransport;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.FrameDecoder;
+import jnetcall.java.impl.util.ClassTools;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class TcpDuplexTransport implements ISendTransport, IPullTransport, AutoCloseable {
+
+    private static final int MaxRetryWait = 1000;
+
+    private final IEncoding<byte[]> _encoding;
+    private final SocketAddress _endPoint;
+    private final ServerSocketChannel _listener;
+    private final Queue<Frame> _outgoing;
+    private final AtomicBoolean _writing;
+    private final FrameDecoder _decoder;
+    private final Queue<MethodResult> _failed;
+
+    private volatile CompletableFuture<SocketChannel> _connection;
+    private SocketChannel _writeChannel;
+    private volatile boolean _closed;
+
+    public TcpDuplexTransport(IEncoding<byte[]> encoding, String host, int port, boolean listen) {
+        this(encoding, NetworkTools.toEndPoint(host, port), listen);
+    }
+
+    private TcpDuplexTransport(IEncoding<byte[]> encoding, SocketAddress endPoint, boolean listen) {
+        _encoding = encoding;
+        _endPoint = endPoint;
+        _outgoing = new ConcurrentLinkedQueue<>();
+        _writing = new AtomicBoolean();
+        _decoder = new FrameDecoder(new BufferPool(1 << 20, 4, true));
+        _failed = new ConcurrentLinkedQueue<>();
+        try {
+            _listener = listen ? ServerSocketChannel.open().bind(endPoint) : null;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        _connection = connect();
+    }
+
+    private CompletableFuture<SocketChannel> connect() {
+        var future = new CompletableFuture<SocketChannel>();
+        Thread.ofVirtual().name(getClass().getSimpleName() + "|Connect").start(() -> {
+            try {
+                var channel = _listener != null ? _listener.accept() : openChannel();
+                channel.socket().setTcpNoDelay(true);
+                future.complete(channel);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private SocketChannel openChannel() throws IOException, InterruptedException {
+        var wait = 1;
+        while (true)
+            try {
+                return SocketChannel.open(_endPoint);
+            } catch (ClosedChannelException e) {
+                throw e;
+            } catch (IOException e) {
+                if (_closed)
+                    throw e;
+                Thread.sleep(wait);
+                wait = Math.min(wait * 2, MaxRetryWait);
+            }
+    }
+
+    private SocketChannel getChannel() throws IOException, InterruptedException {
+        try {
+            return _connection.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static SocketChannel peekChannel(CompletableFuture<SocketChannel> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private synchronized void reconnect(SocketChannel broken) {
+        if (_closed || peekChannel(_connection) != broken)
+            return;
+        try {
+            broken.close();
+        } catch (IOException e) {
+            // Already broken
+        }
+        _connection = connect();
+    }
+
+    private record Frame(ByteBuffer buffer, short callId) {
+    }
+
+    // Only calls waiting for an answer can be failed back
+    private static short toCallId(Object payload) {
+        if (payload instanceof MethodCall call && !ClassTools.Credit.equals(call.className()))
+            return call.id();
+        return ClassTools.NoCallId;
+    }
+
+    @Override
+    public <T> void send(T payload) {
+        try {
+            var bytes = _encoding.encode(payload);
+            _outgoing.add(new Frame(ByteBuffer.wrap(bytes), toCallId(payload)));
+            flushOutgoing();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void flushOutgoing() throws IOException, InterruptedException {
+        var batch = new ArrayList<Frame>();
+        while (!_outgoing.isEmpty() && _writing.compareAndSet(false, true))
+            try {
+                Frame next;
+                while ((next = _outgoing.poll()) != null)
+                    batch.add(next);
+                writeAll(batch);
+                batch.clear();
+            } finally {
+                _writing.set(false);
+            }
+    }
+
+    private void writeAll(List<Frame> frames) throws IOException, InterruptedException {
+        while (!frames.isEmpty()) {
+            var channel = getChannel();
+            setWriteChannel(channel);
+            try {
+                var buffers = frames.stream().map(Frame::buffer).toArray(ByteBuffer[]::new);
+                var last = buffers[buffers.length - 1];
+                while (last.hasRemaining())
+                    channel.write(buffers);
+                return;
+            } catch (IOException e) {
+                if (_closed)
+                    throw e;
+                frames = failWritten(frames);
+                reconnect(channel);
+            } finally {
+                setWriteChannel(null);
+            }
+        }
+    }
+
+    // A written frame may have been run already, so it is failed instead of sent twice
+    private List<Frame> failWritten(List<Frame> frames) {
+        var left = new ArrayList<Frame>();
+        for (var frame : frames) {
+            var buffer = frame.buffer();
+            if (buffer.hasRemaining()) {
+                buffer.rewind();
+                left.add(frame);
+                continue;
+            }
+            if (frame.callId() != ClassTools.NoCallId)
+                _failed.add(new MethodResult(frame.callId(), "Connection lost after sending #"
+                        + frame.callId(), MethodStatus.MethodFailed.getValue()));
+        }
+        return left;
+    }
+
+    private synchronized void setWriteChannel(SocketChannel channel) {
+        _writeChannel = channel;
+        notifyAll();
+    }
+
+    // The writer first fails what it sent on the broken channel
+    private synchronized void awaitWriter(SocketChannel broken) throws InterruptedException {
+        while (_writeChannel == broken && !_closed)
+            wait();
+    }
+
+    @Override
+    public <T> T pull(Class<T> clazz) {
+        try {
+            synchronized (_decoder) {
+                while (true) {
+                    if (!_failed.isEmpty())
+                        return clazz.cast(_failed.poll());
+                    var channel = getChannel();
+                    // Failed before the new connection was handed out
+                    if (!_failed.isEmpty())
+                        return clazz.cast(_failed.poll());
+                    try {
+                        var frame = _decoder.read(channel);
+                        return IByteEncoding.decode(_encoding, frame, clazz);
+                    } catch (IOException e) {
+                        if (_closed)
+                            throw e;
+                        _decoder.clear();
+                        reconnect(channel);
+                        awaitWriter(channel);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        _closed = true;
+        _encoding.close();
+        var current = _connection;
+        current.completeExceptionally(new ClosedChannelException());
+        var channel = peekChannel(current);
+        if (channel != null)
+            channel.close();
+        if (_listener != null)
+            _listener.close();
+    }
+}
@@ -0,0 +1,260 @@
+package jnetcall.java.impl.io.net;
+
+import jnetbase.java.io.BufferPool;
+import jnetcall.java.api.enc.IByteEncoding;
+import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
+import jnetcall.java.api.io.IPullTransport;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.FrameDecoder;
+import jnetcall.java.impl.util.ClassTools;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class TcpServerTransport implements ISendTransport, IPullTransport, AutoCloseable {
+
+    private final IEncoding<byte[]> _encoding;
+    private final ServerSocketChannel _listener;
+    private final Selector _selector;
+    private final BufferPool _pool;
+    private final BlockingQueue<MethodCall> _incoming;
+    private final Queue<Connection> _writable;
+    private final Map<Short, Route> _routes;
+    private final Map<Short, Route> _callbacks;
+    private final AtomicInteger _nextId;
+    private final AtomicInteger _nextDelegateId;
+    private final Thread _thread;
+
+    private volatile boolean _running;
+
+    public TcpServerTransport(IEncoding<byte[]> encoding, String host, int port) {
+        this(encoding, NetworkTools.toEndPoint(host, port));
+    }
+
+    private TcpServerTransport(IEncoding<byte[]> encoding, SocketAddress endPoint) {
+        _encoding = encoding;
+        _pool = new BufferPool(1 << 20, 64, true);
+        _incoming = new LinkedBlockingQueue<>();
+        _writable = new ConcurrentLinkedQueue<>();
+        _routes = new ConcurrentHashMap<>();
+        _callbacks = new ConcurrentHashMap<>();
+        _nextId = new AtomicInteger();
+        _nextDelegateId = new AtomicInteger();
+        try {
+            _selector = Selector.open();
+            _listener = ServerSocketChannel.open().bind(endPoint);
+            _listener.configureBlocking(false);
+            _listener.register(_selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        _running = true;
+        _thread = new Thread(this::selectLoop, getClass().getSimpleName() + "|Select");
+        _thread.setDaemon(true);
+        _thread.start();
+    }
+
+    private record Route(Connection connection, short id) {
+    }
+
+    private final class Connection {
+
+        private final SocketChannel _channel;
+        private final SelectionKey _key;
+        private final FrameDecoder _decoder;
+        private final Queue<ByteBuffer> _outgoing;
+
+        // Only touched by the selecting thread: client delegate ids to ours, marks per call
+        private final Map<Short, Short> _delegates;
+        private final Map<Short, Object[]> _marks;
+
+        private Connection(SocketChannel channel) throws IOException {
+            _channel = channel;
+            _channel.configureBlocking(false);
+            _channel.socket().setTcpNoDelay(true);
+            _key = channel.register(_selector, SelectionKey.OP_READ, this);
+            _decoder = new FrameDecoder(_pool);
+            _outgoing = new ConcurrentLinkedQueue<>();
+            _delegates = new HashMap<>();
+            _marks = new HashMap<>();
+        }
+
+        private void read() throws IOException {
+            ByteBuffer frame;
+            while ((frame = _decoder.read(_channel)) != null)
+                try {
+                    receive(this, IByteEncoding.decode(_encoding, frame, MethodCall.class));
+                } catch (Exception e) {
+                    throw new IOException(e);
+                }
+        }
+
+        private void write() throws IOException {
+            ByteBuffer next;
+            while ((next = _outgoing.peek()) != null) {
+                _channel.write(next);
+                if (next.hasRemaining())
+                    return;
+                _outgoing.poll();
+            }
+            _key.interestOps(SelectionKey.OP_READ);
+            if (!_outgoing.isEmpty())
+                _key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        private void close() {
+            _key.cancel();
+            try {
+                _channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+            _decoder.close();
+            _outgoing.clear();
+            _routes.values().removeIf(r -> r.connection() == this);
+            _callbacks.values().removeIf(r -> r.connection() == this);
+        }
+    }
+
+    private void selectLoop() {
+        while (_running)
+            try {
+                _selector.select();
+                Connection pending;
+                while ((pending = _writable.poll()) != null)
+                    if (pending._key.isValid())
+                        pending._key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                var keys = _selector.selectedKeys();
+                for (var key : keys)
+                    handle(key);
+                keys.clear();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                if (_running)
+                    e.printStackTrace();
+            }
+    }
+
+    private void handle(SelectionKey key) throws IOException {
+        if (key.isAcceptable()) {
+            var channel = _listener.accept();
+            if (channel != null)
+                new Connection(channel);
+            return;
+        }
+        var connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable())
+                connection.read();
+            if (key.isValid() && key.isWritable())
+                connection.write();
+        } catch (IOException | CancelledKeyException e) {
+            connection.close();
+        }
+    }
+
+    private void receive(Connection connection, MethodCall call) {
+        // Already carries the stream token of this side and gets no answer
+        if (ClassTools.Credit.equals(call.className())) {
+            _incoming.add(call);
+            return;
+        }
+        // Only ids the client marked, so plain short arguments stay out
+        if (ClassTools.Subscribe.equals(call.className())) {
+            var args = call.args();
+            connection._marks.put(((Number) args[0]).shortValue(), args);
+            return;
+        }
+        var args = rewriteDelegates(connection, connection._marks.remove(call.id()), call.args());
+        var id = (short) _nextId.incrementAndGet();
+        _routes.put(id, new Route(connection, call.id()));
+        _incoming.add(new MethodCall(id, call.className(), call.methodName(), args));
+    }
+
+    // Every client counts its delegates from one, so they get ids unique to this side
+    private Object[] rewriteDelegates(Connection connection, Object[] marks, Object[] args) {
+        if (marks == null)
+            return args;
+        args = args.clone();
+        for (var i = 1; i + 1 < marks.length; i += 2) {
+            var index = ((Number) marks[i]).intValue();
+            var theirs = ((Number) marks[i + 1]).shortValue();
+            var ours = connection._delegates.get(theirs);
+            if (ours == null) {
+                ours = (short) _nextDelegateId.incrementAndGet();
+                connection._delegates.put(theirs, ours);
+                _callbacks.put(ours, new Route(connection, theirs));
+            }
+            if (index >= 0 && index < args.length)
+                args[index] = ours;
+        }
+        return args;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T pull(Class<T> clazz) {
+        try {
+            return (T) _incoming.take();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> void send(T payload) {
+        var result = (MethodResult) payload;
+        Connection connection;
+        if (result.status() == MethodStatus.Continue.getValue()) {
+            var route = _callbacks.get(result.id());
+            if (route == null)
+                return;
+            connection = route.connection();
+            result = new MethodResult(route.id(), result.result(), result.status());
+        } else {
+            var route = result.status() == MethodStatus.Partial.getValue()
+                    ? _routes.get(result.id())
+                    : _routes.remove(result.id());
+            if (route == null)
+                return;
+            connection = route.connection();
+            result = new MethodResult(route.id(), result.result(), result.status());
+        }
+        if (connection == null || !connection._key.isValid())
+            return;
+        try {
+            var bytes = _encoding.encode(result);
+            connection._outgoing.add(ByteBuffer.wrap(bytes));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        _writable.add(connection);
+        _selector.wakeup();
+    }
+
+    @Override
+    public void close() throws Exception {
+        _running = false;
+        _encoding.close();
+        for (var key : _selector.keys())
+            if (key.attachment() instanceof Connection connection)
+                connection.close();
+        _selector.close();
+        _listener.close();
+        _thread.interrupt();
+    }
+}
@@ -1,8 +1,11 @@
 package jnetcall.java.impl.io.net;
 
+import jnetbase.java.io.BufferPool;
+import jnetcall.java.api.enc.IByteEncoding;
 import jnetcall.java.api.enc.IEncoding;
 import jnetcall.java.api.io.IPullTransport;
 import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.FrameDecoder;
 
 import java.io.IOException;
 import java.net.SocketAddress;
@@ -73,15 +76,15 @@ public final class TcpTransport implements ISendTransport, IPullTransport, AutoC
 
     private final Object _receiveSync = new Object();
     private SocketChannel _receiverConn;
+    private final FrameDecoder _decoder = new FrameDecoder(new BufferPool(1 << 20, 4, true));
 
     @Override
     public <T> T pull(Class<T> clazz) {
         try {
             synchronized (_receiveSync) {
                 forceAccept();
-                var buff = NetworkTools.readWithSize(_receiverConn);
-                var bytes = buff.array();
-                return _encoding.decode(bytes, clazz);
+                var frame = _decoder.read(_receiverConn);
+                return IByteEncoding.decode(_encoding, frame, clazz);
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -94,5 +97,6 @@ public final class TcpTransport implements ISendTransport, IPullTransport, AutoC
         _sender.close();
         if (_receiverConn != null) _receiverConn.close();
         _receiver.close();
+        _decoder.close();
     }
 }
@@ -1,5 +1,6 @@
 package jnetcall.java.impl.io.net;
 
+import jnetcall.java.api.enc.IByteEncoding;
 import jnetcall.java.api.enc.IEncoding;
 import jnetcall.java.api.io.IPullTransport;
 import jnetcall.java.api.io.ISendTransport;
@@ -7,13 +8,17 @@ import jnetcall.java.api.io.ISendTransport;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.DatagramChannel;
 
 public final class UdpTransport implements ISendTransport, IPullTransport, AutoCloseable {
 
+    private static final int MaxDatagram = 65507;
+
     private final IEncoding<byte[]> _encoding;
     private final DatagramChannel _receiver;
     private final DatagramChannel _sender;
+    private final ByteBuffer _buffer;
 
     public UdpTransport(IEncoding<byte[]> encoding,
                          String hostIn, int portIn, String hostOut, int portOut) {
@@ -24,6 +29,7 @@ public final class UdpTransport implements ISendTransport, IPullTransport, AutoC
     private UdpTransport(IEncoding<byte[]> encoding,
                           SocketAddress endPointIn, SocketAddress endPointOut) {
         _encoding = encoding;
+        _buffer = ByteBuffer.allocateDirect(MaxDatagram).order(ByteOrder.nativeOrder());
         try {
             _receiver = DatagramChannel.open().bind(endPointIn);
             _sender = DatagramChannel.open();
@@ -36,9 +42,11 @@ public final class UdpTransport implements ISendTransport, IPullTransport, AutoC
     @Override
     public <T> T pull(Class<T> clazz) {
         try {
-            var buff = ByteBuffer.allocate(65535);
-            _receiver.receive(buff);
-            return _encoding.decode(buff.array(), clazz);
+            synchronized (_buffer) {
+                _buffer.clear();
+                _receiver.receive(_buffer);
+                return IByteEncoding.decode(_encoding, _buffer.flip(), clazz);
+            }
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -48,6 +56,9 @@ public final class UdpTransport implements ISendTransport, IPullTransport, AutoC
     public <T> void send(T payload) {
         try {
             var bytes = _encoding.encode(payload);
+            if (bytes.length > MaxDatagram)
+                throw new IllegalArgumentException("Payload of " + bytes.length
+                        + " B does not fit one datagram, use " + ReliableUdpTransport.class.getSimpleName());
             var buff = ByteBuffer.wrap(bytes);
             _sender.write(buff);
         } catch (Exception e) {
@@ -10,6 +10,20 @@ public final class ClassTools {
 
     private static final String AsyncAdd = "_A";
 
+    public static final String Handshake = "$";
+
+    // Lets a streamed result send more chunks, never answered
+    public static final String Credit = "$+";
+
+    // Marks where a call carries delegate ids: call id, then index and id pairs, never answered
+    public static final String Subscribe = "$~";
+
+    // Id of a message that is never answered, so no call can match it
+    public static final short NoCallId = -1;
+
+    // Chunks of a streamed result in flight before the receiver grants more
+    public static final int StreamWindow = 16;
+
     public static Pair<String, String> toMethodId(MethodCall call) {
         var name = call.methodName().replace("_", "");
         var count = call.args().length;
@@ -26,6 +40,11 @@ public final class ClassTools {
         return id;
     }
 
+    public static String toMethodKey(String className, String methodName, int count) {
+        var name = methodName.replace("_", "");
+        return (className + "::" + name + "_" + count).toLowerCase();
+    }
+
     public static boolean isSameMethod(Method m, String callName) {
         var mName = m.getName().replace("_", "");
         return mName.equalsIgnoreCase(callName);
@@ -4,6 +4,7 @@ import jnetbase.java.meta.Reflect;
 import jnetbase.java.sys.Strings;
 import jnetbase.java.threads.Executor;
 import jnetbase.java.threads.Tasks;
+import jnetbase.java.threads.VirtualExecutor;
 import jnetcall.java.api.flow.MethodCall;
 import jnetcall.java.api.flow.MethodResult;
 import jnetcall.java.api.flow.MethodStatus;
@@ -12,33 +13,56 @@ import jnetcall.java.api.io.IPushTransport;
 import jnetcall.java.api.io.ISendTransport;
 import jnetcall.java.impl.util.ClassTools;
 import jnetcall.java.server.api.IHosting;
-import jnetcall.java.server.model.DelegateWrap;
-import jnetproto.java.tools.Conversions;
+import jnetcall.java.server.model.CallTarget;
+import jnetcall.java.server.model.ChunkSource;
+import jnetcall.java.server.model.MethodTable;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Proxy;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
-import java.util.function.BiFunction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public final class ClassHosting implements IHosting {
 
     private final Executor _executor;
+    private final Executor _workers;
+    private final Executor _streamers;
+    private final Semaphore _limit;
     private final ISendTransport _protocol;
-    private final Map<String, Map<String, BiFunction<Object, Object[], Object>>> _callMap;
+    private final Map<String, MethodTable> _callMap;
+    private final Map<String, MethodTable> _aliases;
+    private final List<String> _keys;
+    private final List<CallTarget> _ordinals;
     private final Object _instance;
+    private final ConcurrentMap<Short, Semaphore> _streams;
 
     private boolean _running;
 
     public ClassHosting(Object instance, ISendTransport protocol, Executor executor) {
+        this(instance, protocol, executor, 0);
+    }
+
+    public ClassHosting(Object instance, ISendTransport protocol, Executor executor, int maxCalls) {
         _executor = executor;
+        _workers = maxCalls > 0 ? new VirtualExecutor() : null;
+        _limit = maxCalls > 0 ? new Semaphore(maxCalls) : null;
+        _streamers = new VirtualExecutor();
         _protocol = protocol;
         _callMap = new LinkedHashMap<>();
+        _aliases = new ConcurrentHashMap<>();
+        _keys = new ArrayList<>();
+        _ordinals = new ArrayList<>();
         _instance = instance;
+        _streams = new ConcurrentHashMap<>();
     }
 
     public void registerAll() {
@@ -49,21 +73,37 @@ public final class ClassHosting implements IHosting {
     @Override
     public void addServiceEndpoint(Class<?> interfaceClass) {
         var name = interfaceClass.getSimpleName().toLowerCase();
-        var subMap = new LinkedHashMap<String, BiFunction<Object, Object[], Object>>();
-        _callMap.put(name, subMap);
+        var table = new MethodTable();
+        _callMap.put(name, table);
+        _aliases.clear();
 
         var methods = interfaceClass.getMethods();
         for (var method : methods)
-	        subMap.put(ClassTools.toMethodId(method), (obj, args) -> Reflect.invoke(method, obj, args));
+            table.add(_instance, method);
+
+        for (var method : methods) {
+            var count = method.getParameterCount();
+            var key = ClassTools.toMethodKey(name, method.getName(), count);
+            if (_keys.size() >= Short.MAX_VALUE || _keys.contains(key))
+                continue;
+            _keys.add(key);
+            _ordinals.add(table.find(method.getName(), count));
+        }
     }
 
     @Override
     public void close() throws Exception {
         _running = false;
         _executor.close();
+        if (_workers != null)
+            _workers.close();
+        _streamers.close();
         if (_instance instanceof AutoCloseable ac)
             ac.close();
         _callMap.clear();
+        _aliases.clear();
+        _keys.clear();
+        _ordinals.clear();
         _protocol.close();
     }
 
@@ -85,42 +125,96 @@ public final class ClassHosting implements IHosting {
         return pack(debug, MethodStatus.MethodFailed, id);
     }
 
+    private MethodTable findTable(String className) {
+        var table = _aliases.get(className);
+        if (table == null) {
+            table = _callMap.get(className.toLowerCase());
+            if (table == null)
+                return null;
+            _aliases.put(className, table);
+        }
+        return table;
+    }
+
     private CompletableFuture<MethodResult> handle(MethodCall call) {
         var callId = call.id();
-        var callIt = call.className().toLowerCase();
-        if (!_callMap.containsKey(callIt))
+        if (call.className() == null)
+            return handleOrdinal(call);
+        if (ClassTools.Handshake.equals(call.className()))
+            return pack(_keys.toArray(String[]::new), MethodStatus.Ok, callId);
+        var table = findTable(call.className());
+        if (table == null)
 	        return pack(call.className(), MethodStatus.ClassNotFound, callId);
-        var subMap = _callMap.get(callIt);
-        var methodIds = ClassTools.toMethodId(call);
-        BiFunction<Object, Object[], Object> func;
-        if ((func = subMap.getOrDefault(methodIds.getValue0(), null)) == null)
-            func = subMap.getOrDefault(methodIds.getValue1(), null);
-        if (func == null)
+        var args = call.args();
+        var target = table.find(call.methodName(), args.length);
+        if (target == null)
 	        return pack(call.className() + "::" + call.methodName(), MethodStatus.MethodNotFound, callId);
+        return invoke(target, args, callId);
+    }
+
+    private CompletableFuture<MethodResult> handleOrdinal(MethodCall call) {
+        var callId = call.id();
+        var args = call.args();
+        if (args.length == 0 || !(args[0] instanceof Number number))
+            return pack("#?", MethodStatus.MethodNotFound, callId);
+        var ordinal = number.intValue();
+        if (ordinal < 0 || ordinal >= _ordinals.size())
+            return pack("#" + ordinal, MethodStatus.MethodNotFound, callId);
+        var target = _ordinals.get(ordinal);
+        return invoke(target, Arrays.copyOfRange(args, 1, args.length), callId);
+    }
+
+    private CompletableFuture<MethodResult> invoke(CallTarget target, Object[] args, short callId) {
         try {
-            var method = Reflect.getMethod(func);
-            var rawArgs = rewriteArgsIfNeeded(call.args(), method.getParameters());
-            var args = Conversions.convertFor(rawArgs, method);
-            var res = func.apply(_instance, args);
+            var res = target.invoke(this, args);
+            if (ChunkSource.isStreamed(res))
+                return streamLater(res, callId);
             return pack(res, MethodStatus.Ok, callId);
         } catch (Exception e) {
             return pack(e, callId);
         }
     }
 
-    private static Object wrapToDelegate(Type prm, DelegateWrap obj) {
-        return Proxy.newProxyInstance(DelegateWrap.class.getClassLoader(), new Class<?>[]{(Class<?>) prm}, obj);
+    private static final long CreditTimeoutSec = 60;
+
+    // Waits for credit, so not on the caller's thread, which may be a shared one
+    private CompletableFuture<MethodResult> streamLater(Object res, short callId) {
+        var credits = new Semaphore(ClassTools.StreamWindow);
+        _streams.put(callId, credits);
+        var done = new CompletableFuture<MethodResult>();
+        _streamers.createThread(() -> stream(res, callId, credits).thenAccept(done::complete),
+                getClass().getSimpleName() + "|Stream");
+        return done;
     }
 
-    private Object[] rewriteArgsIfNeeded(Object[] args, Parameter[] pars) {
-        for (var i = 0; i < args.length; i++) {
-            var prm = pars[i].getType();
-            if (!Reflect.isDelegate(prm))
-                continue;
-            var delId = (short) args[i];
-            args[i] = wrapToDelegate(prm, new DelegateWrap(this, delId, prm));
+    // Sends the result in chunks, only as many as the caller granted
+    private CompletableFuture<MethodResult> stream(Object res, short callId, Semaphore credits) {
+        try (var source = new ChunkSource(res)) {
+            var status = MethodStatus.Partial.getValue();
+            Object chunk;
+            while ((chunk = source.next()) != null) {
+                if (!credits.tryAcquire(CreditTimeoutSec, TimeUnit.SECONDS))
+                    throw new TimeoutException("No credit for #" + callId);
+                if (_streams.get(callId) != credits)
+                    break;
+                _protocol.send(new MethodResult(callId, new Object[]{callId, chunk}, status));
+            }
+            return pack(null, MethodStatus.Ok, callId);
+        } catch (Exception e) {
+            return pack(e, callId);
+        } finally {
+            _streams.remove(callId, credits);
         }
-        return args;
+    }
+
+    private void credit(MethodCall call) {
+        var args = call.args();
+        var token = ((Number) args[0]).shortValue();
+        var count = ((Number) args[1]).intValue();
+        // A negative count means the caller stopped reading
+        var credits = count < 0 ? _streams.remove(token) : _streams.get(token);
+        if (credits != null)
+            credits.release(Math.max(count, 1));
     }
 
     @SuppressWarnings("unchecked")
@@ -136,7 +230,30 @@ public final class ClassHosting implements IHosting {
     }
 
     private void run(MethodCall msg) {
-        CompletableFuture.runAsync(() -> _protocol.send(Reflect.getVal(handle(msg))));
+        if (ClassTools.Credit.equals(msg.className())) {
+            credit(msg);
+            return;
+        }
+        // Only of use to transports, the delegates come with the call
+        if (ClassTools.Subscribe.equals(msg.className()))
+            return;
+        if (_workers == null) {
+            CompletableFuture.runAsync(() -> handle(msg).thenAccept(_protocol::send));
+            return;
+        }
+        try {
+            _limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        _workers.createThread(() -> {
+            try {
+                _protocol.send(Reflect.getVal(handle(msg)));
+            } finally {
+                _limit.release();
+            }
+        }, null);
     }
 
     public void serve() {
@@ -0,0 +1,84 @@
+package jnetcall.java.server.model;
+
+import jnetbase.java.meta.Reflect;
+import jnetcall.java.server.api.IHosting;
+import jnetproto.java.tools.Conversions;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+
+public final class CallTarget {
+
+    private final Method _method;
+    private final MethodHandle _handle;
+    private final Type[] _types;
+    private final Class<?>[] _delegates;
+
+    public CallTarget(Object instance, Method method) {
+        _method = method;
+        _handle = toHandle(instance, method);
+        _types = method.getGenericParameterTypes();
+        _delegates = findDelegates(method.getParameterTypes());
+    }
+
+    public Method getMethod() {
+        return _method;
+    }
+
+    public Object invoke(IHosting host, Object[] args) throws InvocationTargetException {
+        if (_delegates != null)
+            for (var i = 0; i < args.length; i++) {
+                var delType = _delegates[i];
+                if (delType == null)
+                    continue;
+                var delId = (short) args[i];
+                args[i] = wrapToDelegate(delType, new DelegateWrap(host, delId, delType));
+            }
+        Conversions.convert(_types, args);
+        try {
+            return (Object) _handle.invokeExact(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e, _method.toString());
+        }
+    }
+
+    private static Object wrapToDelegate(Class<?> prm, DelegateWrap obj) {
+        return Proxy.newProxyInstance(DelegateWrap.class.getClassLoader(), new Class<?>[]{prm}, obj);
+    }
+
+    private static Class<?>[] findDelegates(Class<?>[] types) {
+        Class<?>[] delegates = null;
+        for (var i = 0; i < types.length; i++) {
+            var prm = types[i];
+            if (!Reflect.isDelegate(prm))
+                continue;
+            if (delegates == null)
+                delegates = new Class<?>[types.length];
+            delegates[i] = prm;
+        }
+        return delegates;
+    }
+
+    private static MethodHandle toHandle(Object instance, Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            method.setAccessible(true);
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new RuntimeException(method.toString(), ex);
+            }
+        }
+        var count = method.getParameterCount();
+        return handle.bindTo(instance)
+                .asType(MethodType.genericMethodType(count))
+                .asSpreader(Object[].class, count);
+    }
+}
@@ -0,0 +1,45 @@
+package jnetcall.java.server.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+public final class ChunkSource implements AutoCloseable {
+
+    private static final int ChunkSize = 64 * 1024;
+    // Items go out as a bag, which counts them in a signed byte
+    private static final int ChunkItems = Byte.MAX_VALUE;
+
+    private final InputStream _stream;
+    private final Iterator<?> _items;
+
+    public ChunkSource(Object source) {
+        _stream = source instanceof InputStream s ? s : null;
+        _items = source instanceof Iterator<?> i ? i : null;
+    }
+
+    public static boolean isStreamed(Object source) {
+        return source instanceof InputStream || source instanceof Iterator<?>;
+    }
+
+    // Bytes or items for one message, null at the end
+    public Object next() throws IOException {
+        if (_stream != null) {
+            var chunk = _stream.readNBytes(ChunkSize);
+            return chunk.length == 0 ? null : chunk;
+        }
+        var items = new ArrayList<Object>();
+        while (items.size() < ChunkItems && _items.hasNext())
+            items.add(_items.next());
+        return items.isEmpty() ? null : items.toArray();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (_stream != null)
+            _stream.close();
+        if (_items instanceof AutoCloseable ac)
+            ac.close();
+    }
+}
@@ -0,0 +1,55 @@
+package jnetcall.java.server.model;
+
+import jnetbase.java.meta.Reflect;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MethodTable {
+
+    private static final CallTarget[] Empty = new CallTarget[0];
+
+    private final Map<String, CallTarget[]> _byId;
+    private final Map<String, CallTarget[]> _byName;
+
+    public MethodTable() {
+        _byId = new LinkedHashMap<>();
+        _byName = new ConcurrentHashMap<>();
+    }
+
+    public static String toMethodName(String name) {
+        return name.replace("_", "").toLowerCase();
+    }
+
+    public void add(Object instance, Method method) {
+        var name = toMethodName(method.getName());
+        var count = method.getParameterCount();
+        var targets = _byId.getOrDefault(name, Empty);
+        if (targets.length <= count)
+            targets = Arrays.copyOf(targets, count + 1);
+        var existing = targets[count];
+        if (existing == null || Reflect.isAsync(method) && !Reflect.isAsync(existing.getMethod()))
+            targets[count] = new CallTarget(instance, method);
+        _byId.put(name, targets);
+        _byName.clear();
+    }
+
+    public CallTarget find(String methodName, int argCount) {
+        var targets = _byName.get(methodName);
+        if (targets == null) {
+            targets = _byId.get(toMethodName(methodName));
+            if (targets == null)
+                return null;
+            _byName.put(methodName, targets);
+        }
+        return argCount < targets.length ? targets[argCount] : null;
+    }
+
+    public void clear() {
+        _byId.clear();
+        _byName.clear();
+    }
+}
@@ -1,61 +1,46 @@
 package jnetcall.java.client;
 
-import com.sun.jna.Function;
-import jnethotel.java.Clr;
-import jnethotel.java.Natives;
-import jnethotel.java.api.ICoreClr;
-import org.javatuples.Pair;
+import jnetbase.java.io.GrowableStream;
+import jnethotel.java.ClrRegistry;
+import jnethotel.java.api.ICallback;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 public final class ClrContainer implements AutoCloseable {
 
-    private final Clr _vm;
-    private final Function _caller;
+    private final ICallback _caller;
 
     public ClrContainer(String dll) {
         try {
-            var tmp = setupClr(dll);
-            _vm = tmp.getValue0();
-            _caller = tmp.getValue1();
+            _caller = getCallCallback(ClrRegistry.getDefault(), dll);
         } catch (Exception e) {
             throw new RuntimeException(dll, e);
         }
     }
 
-    private static Pair<Clr, Function> setupClr(String dll) throws Exception {
-        var vmRef = Natives.getVmRef();
-        vmRef.loadLib();
-        var clr = new Clr(vmRef);
-        var caller = getCallCallback(clr.getCore(), dll);
-        installStop(clr);
-        return Pair.with(clr, caller);
-    }
-
-    private static void installStop(AutoCloseable vm) {
-        var domain = Runtime.getRuntime();
-        domain.addShutdownHook(new Thread(() -> {
-            try {
-                vm.close();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }));
-    }
-
-    public byte[] sendAndGetArray(byte[] input) {
-        var output = _vm.callStaticByteArrayMethod(_caller, input);
-        return output;
+    // The view is only valid until the next call, so it is copied out on this thread
+    public void sendAndCopy(byte[] input, OutputStream output) throws IOException {
+        var view = _caller.callByteBuffer(input);
+        if (output instanceof GrowableStream gs) {
+            gs.write(view);
+            return;
+        }
+        var bytes = new byte[view.remaining()];
+        view.get(bytes);
+        output.write(bytes);
     }
 
-    private static Function getCallCallback(ICoreClr coreClr, String dll)
+    private static ICallback getCallCallback(ClrRegistry registry, String dll)
             throws Exception {
         final var bootType = "X.Boot";
         final var bootMethod = "Call";
         final var bootDelegate = "JNetCall.Sharp.API.CallDelegate, JNetCall.Sharp.InProc";
-        return Clr.getCallback(coreClr, dll, bootType, bootMethod, bootDelegate);
+        return registry.getCallback(dll, bootType, bootMethod, bootDelegate);
     }
 
     @Override
     public void close() {
-        // NO-OP
+        // NO-OP, the registry owns the callback
     }
 }
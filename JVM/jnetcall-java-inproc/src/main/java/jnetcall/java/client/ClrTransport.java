@@ -1,95 +1,174 @@
 package jnetcall.java.client;
 
+import jnetbase.java.io.GrowableStream;
 import jnetbase.java.meta.TypeToken;
-import jnetbase.java.threads.FuncTimerTask;
 import jnetbase.java.threads.ManualResetEvent;
 import jnetbase.java.threads.SingleThread;
-import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.api.ICaller;
+import jnetcall.java.api.enc.IByteEncoding;
 import jnetcall.java.api.flow.MethodCall;
 import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
 import jnetcall.java.api.io.IPullTransport;
 import jnetcall.java.impl.enc.BinaryEncoding;
+import jnetcall.java.impl.util.ClassTools;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 final class ClrTransport implements IPullTransport {
 
-    private static SingleThread<ClrContainer> _single;
+    private static final long MinWaitNanos = TimeUnit.MICROSECONDS.toNanos(50);
 
-    private final Object _sync;
-    private final IEncoding<byte[]> _encoding;
-    private final Timer _timer;
+    private static final ConcurrentMap<String, SingleThread<ClrContainer>> _singles =
+            new ConcurrentHashMap<>();
+
+    private final IByteEncoding _encoding;
+    private final ICaller _caller;
+    private final long _maxWaitNanos;
     private final BlockingQueue<Object> _inputs;
-    private final BlockingQueue<Object> _outputs;
+    private final Queue<MethodCall> _outputs;
+    private final AtomicInteger _pending;
+    private final GrowableStream _received;
+    private final Thread _pump;
+
+    private volatile boolean _subscribed;
+    private volatile boolean _running;
 
     public ClrTransport(String dll, long pollMs) {
+        this(toCaller(dll), pollMs);
+    }
+
+    public ClrTransport(ICaller caller, long pollMs) {
+        _encoding = new BinaryEncoding();
+        _caller = caller;
+        _maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(pollMs);
+        _inputs = new LinkedBlockingQueue<>();
+        _outputs = new ConcurrentLinkedQueue<>();
+        _pending = new AtomicInteger();
+        _received = new GrowableStream();
+        _running = true;
+        _pump = new Thread(this::pump, getClass().getSimpleName() + "|Pump");
+        _pump.setDaemon(true);
+        _pump.start();
+    }
+
+    private static ICaller toCaller(String dll) {
+        var file = new File(dll);
         try {
-            if (!(new File(dll)).exists())
+            if (!file.exists())
                 throw new FileNotFoundException("Missing: " + dll);
-            _sync = new Object();
-            _encoding = new BinaryEncoding();
-            _timer = startTimer(FuncTimerTask.wrap(this::onTick), pollMs);
-            _inputs = new LinkedBlockingQueue<>();
-            _outputs = new LinkedBlockingQueue<>();
-            if (_single != null)
-                return;
-            _single = new SingleThread<>(() -> new ClrContainer(dll));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        // Each assembly gets its own container, all of them load in parallel
+        var path = file.getAbsolutePath();
+        var single = _singles.computeIfAbsent(path, p -> new SingleThread<>(() -> new ClrContainer(p)));
+        return (input, output) -> {
+            sendAndCopy(single, input, output);
+            return true;
+        };
+    }
+
+    private static void sendAndCopy(SingleThread<ClrContainer> single, byte[] input, OutputStream output)
+            throws Exception {
+        var error = new Exception[1];
+        var wait = new ManualResetEvent(false);
+        single.execute(i ->
+        {
+            try {
+                i.sendAndCopy(input, output);
+            } catch (Exception e) {
+                error[0] = e;
+            } finally {
+                wait.set();
+            }
+        });
+        wait.waitOne();
+        if (error[0] != null)
+            throw error[0];
     }
 
     private static final TypeToken<List<MethodResult>> mrList = new TypeToken<>() {
     };
 
-    private void onTick(FuncTimerTask t) {
+    private void pump() {
+        var wait = MinWaitNanos;
+        while (_running) {
+            if (_outputs.isEmpty()) {
+                if (_pending.get() > 0 || _subscribed)
+                    LockSupport.parkNanos(this, wait);
+                else
+                    LockSupport.park(this);
+            }
+            if (!_running)
+                break;
+            try {
+                wait = cross() ? MinWaitNanos : Math.min(wait << 1, _maxWaitNanos);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private boolean cross() throws Exception {
+        var outputs = new ArrayList<MethodCall>();
+        MethodCall next;
+        while ((next = _outputs.poll()) != null)
+            outputs.add(next);
         try {
-            synchronized (_sync) {
-                var outputs = new ArrayList<MethodCall>();
-                ((BlockingQueue) _outputs).drainTo(outputs);
-                var output = _encoding.encode(outputs);
-                var input = sendAndGetArray(output);
-                var inputs = _encoding.decode(input, mrList);
-                _inputs.addAll(inputs);
+            var output = _encoding.encode(outputs);
+            _received.reset();
+            if (!_caller.tryCall(output, _received)) {
+                fail(outputs, "Not taken");
+                return !outputs.isEmpty();
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            fail(outputs, e.toString());
+            throw e;
         }
+        var input = ByteBuffer.wrap(_received.getBuffer(), 0, _received.size());
+        var inputs = _encoding.decode(input, mrList);
+        for (var result : inputs)
+            if (result.status() != MethodStatus.Continue.getValue()
+                    && result.status() != MethodStatus.Partial.getValue())
+                _pending.decrementAndGet();
+        _inputs.addAll(inputs);
+        return !outputs.isEmpty() || !inputs.isEmpty();
     }
 
-    private byte[] sendAndGetArray(byte[] input) throws InterruptedException {
-        synchronized (_sync) {
-            var res = new byte[1][];
-            var wait = new ManualResetEvent(false);
-            _single.execute(i ->
-            {
-                res[0] = i.sendAndGetArray(input);
-                wait.set();
-            });
-            wait.waitOne();
-            var bytes = res[0];
-            return bytes;
+    // Nothing will answer these, so their callers get an error instead of waiting
+    private void fail(List<MethodCall> calls, String reason) {
+        for (var call : calls) {
+            if (!isAnswered(call))
+                continue;
+            _pending.decrementAndGet();
+            _inputs.add(new MethodResult(call.id(), reason, MethodStatus.MethodFailed.getValue()));
         }
     }
 
-    private static Timer startTimer(TimerTask task, long pollMs) {
-        var timer = new Timer(true);
-        timer.scheduleAtFixedRate(task, pollMs, pollMs);
-        return timer;
+    private static boolean isAnswered(MethodCall call) {
+        return !ClassTools.Credit.equals(call.className());
     }
 
     @Override
     public <T> T pull(Class<T> clazz) {
         try {
-            return (T) _inputs.take();
+            return clazz.cast(_inputs.take());
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
@@ -97,14 +176,24 @@ final class ClrTransport implements IPullTransport {
 
     @Override
     public <T> void send(T payload) {
-        _outputs.add(payload);
+        var call = (MethodCall) payload;
+        // The other side may call back any time from now, so keep polling
+        if (ClassTools.Subscribe.equals(call.className())) {
+            _subscribed = true;
+            return;
+        }
+        if (isAnswered(call))
+            _pending.incrementAndGet();
+        _outputs.add(call);
+        LockSupport.unpark(_pump);
     }
 
     @Override
     public void close() throws Exception {
+        _running = false;
+        LockSupport.unpark(_pump);
         _inputs.clear();
         _outputs.clear();
-        _timer.cancel();
         _encoding.close();
     }
 }
@@ -1,13 +1,23 @@
 package jnetcall.java.client;
 
 import jnetbase.java.threads.ThreadExecutor;
+import jnetcall.java.api.ICaller;
 import jnetcall.java.client.tools.ClientHelper;
 
 public final class InProcClient {
 
+    private static final long MaxPollMs = 15;
+
     public static <T> T create(Class<T> clazz, String dll) {
+        return create(clazz, new ClrTransport(dll, MaxPollMs));
+    }
+
+    public static <T> T create(Class<T> clazz, ICaller caller) {
+        return create(clazz, new ClrTransport(caller, MaxPollMs));
+    }
+
+    private static <T> T create(Class<T> clazz, ClrTransport protocol) {
         var pool = new ThreadExecutor();
-        var protocol = new ClrTransport(dll, 15);
         var handler = new ClassProxy(protocol, pool);
         handler.listen();
         return ClientHelper.create(clazz, handler);
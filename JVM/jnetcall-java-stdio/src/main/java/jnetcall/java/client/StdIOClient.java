@@ -3,17 +3,28 @@ package jnetcall.java.client;
 import jnetbase.java.threads.ThreadExecutor;
 import jnetcall.java.api.io.ISendTransport;
 import jnetcall.java.client.tools.ClientHelper;
+import jnetcall.java.common.StreamInit;
 import jnetcall.java.impl.enc.BinaryEncoding;
 import jnetcall.java.impl.io.StreamTransport;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.Duration;
 
 public final class StdIOClient {
 
     public static <T> T create(Class<T> clazz, String exe) {
+        return create(clazz, exe, StdIOClient::initDefault);
+    }
+
+    public static <T> T create(Class<T> clazz, String exe, int batchSize, Duration linger) {
+        return create(clazz, exe, (stdIn, stdOut) ->
+                new StreamTransport(new BinaryEncoding(), stdIn, stdOut, batchSize, linger));
+    }
+
+    private static <T> T create(Class<T> clazz, String exe, StreamInit init) {
         var pool = new ThreadExecutor();
-        var protocol = new ExeTransport(exe, StdIOClient::initDefault);
+        var protocol = new ExeTransport(exe, init);
         var handler = new ClassProxy(protocol, pool);
         handler.listen();
         return ClientHelper.create(clazz, handler);
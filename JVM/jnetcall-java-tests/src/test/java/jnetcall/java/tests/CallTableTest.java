@@ -0,0 +1,46 @@
+package jnetcall.java.tests;
+
+import jnetcall.java.client.model.CallState;
+import jnetcall.java.client.model.CallTable;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+
+import static org.testng.Assert.*;
+
+public final class CallTableTest {
+
+    @Test
+    public void shouldReuseSlots() throws Exception {
+        var table = new CallTable(4);
+        var ids = new HashSet<Short>();
+        for (var i = 0; i < 100_000; i++) {
+            var state = new CallState();
+            var id = table.add(state);
+            assertTrue(id >= 0, id + " ?!");
+            assertSame(table.get(id), state);
+            assertSame(table.remove(id), state);
+            assertNull(table.remove(id));
+            ids.add(id);
+        }
+        assertEquals(ids.size(), 32768);
+        assertTrue(table.removeAll().isEmpty());
+    }
+
+    @Test
+    public void shouldIgnoreStaleIds() throws Exception {
+        var table = new CallTable(4);
+        var first = table.add(new CallState());
+        table.remove(first);
+        for (var i = 0; i < 3; i++)
+            table.add(new CallState());
+        var second = new CallState();
+        var id = table.add(second);
+        assertEquals(id & 3, first & 3);
+        assertNotEquals(id, first);
+        assertNull(table.get(first));
+        assertNull(table.remove(first));
+        assertSame(table.get(id), second);
+        assertEquals(table.removeAll().size(), 4);
+    }
+}
@@ -175,6 +175,20 @@ public abstract class CallTest {
         }
     }
 
+    @Test
+    public void shouldCallInContinuation() throws Exception {
+        try (var client = create(ISimultaneous.class)) {
+
+            client.loadIt("Hello").get();
+
+            // Waits for another answer, so it must not block the listener
+            var txt = client.runIt(26, 0)
+                    .thenApply(p -> client.removeIt().join())
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals("Hello", txt);
+        }
+    }
+
     @Test
     public void shouldCallCalculator() throws Exception {
         try (var client = create(ICalculator.class)) {
@@ -0,0 +1,154 @@
+package jnetcall.java.tests;
+
+import jnethotel.java.ClrRegistry;
+import jnethotel.java.api.ICallback;
+import jnethotel.java.api.ICoreClr;
+import jnethotel.java.api.IVmRef;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public final class ClrRegistryTest {
+
+    private static final Path Folder = Path.of("target", "RegistryTmp");
+    private static final int Assemblies = 6;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        TestTools.createFolder(Folder);
+        for (var i = 0; i < Assemblies; i++) {
+            Files.writeString(Folder.resolve("Lib" + i + ".dll"), "");
+            Files.writeString(Folder.resolve("Lib" + i + ".runtimeconfig.json"), "{}");
+        }
+    }
+
+    private static String getDll(int index) {
+        return Folder.resolve("Lib" + index + ".dll").toString();
+    }
+
+    private static final class FakeVm implements IVmRef, ICoreClr {
+
+        final AtomicInteger libLoads = new AtomicInteger();
+        final AtomicInteger callbacks = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        public String getVmDll() {
+            return "fake";
+        }
+
+        @Override
+        public void loadLib() {
+            libLoads.incrementAndGet();
+        }
+
+        @Override
+        public ICoreClr getCoreClr() {
+            return this;
+        }
+
+        @Override
+        public ICallback load_assembly_and_get_callback(String runtime_config_path, String assembly_path,
+                                                       String type_name, String method_name,
+                                                       String delegate_type_name) throws Exception {
+            callbacks.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } finally {
+                running.decrementAndGet();
+            }
+            return new FakeCallback(type_name);
+        }
+
+        @Override
+        public boolean load_hostfxr() {
+            return true;
+        }
+    }
+
+    private record FakeCallback(String name) implements ICallback {
+
+        @Override
+        public byte[] callByteArray(byte[] input) {
+            return input;
+        }
+
+        @Override
+        public ByteBuffer callByteBuffer(byte[] input) {
+            return ByteBuffer.wrap(input);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    public void shouldLoadOnce() throws Exception {
+        var vm = new FakeVm();
+        vm.gate.countDown();
+        try (var registry = new ClrRegistry(vm)) {
+            var first = registry.getCallback(getDll(0), "X.Boot", "Call", "D");
+            var second = registry.getCallback(getDll(0), "X.Boot", "Call", "D");
+            var other = registry.getCallback(getDll(0), "X.Boot", "Other", "D");
+            assertSame(second, first);
+            assertNotSame(other, first);
+            assertEquals(vm.libLoads.get(), 1);
+            assertEquals(vm.callbacks.get(), 2);
+        }
+    }
+
+    @Test
+    public void shouldLoadInParallel() throws Exception {
+        var vm = new FakeVm();
+        try (var registry = new ClrRegistry(vm)) {
+            var futures = new ArrayList<CompletableFuture<ICallback>>();
+            for (var i = 0; i < Assemblies; i++) {
+                futures.add(registry.getCallbackAsync(getDll(i), "X.Boot", "Call", "D"));
+                futures.add(registry.getCallbackAsync(getDll(i), "X.Boot", "Call", "D"));
+            }
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (vm.running.get() < Assemblies && System.nanoTime() < deadline)
+                Thread.sleep(1);
+            vm.gate.countDown();
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(vm.maxRunning.get(), Assemblies);
+            assertEquals(vm.callbacks.get(), Assemblies);
+            assertEquals(vm.libLoads.get(), 1);
+            for (var i = 0; i < futures.size(); i += 2)
+                assertSame(futures.get(i + 1).get(), futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void shouldNotCacheFailure() throws Exception {
+        var vm = new FakeVm();
+        vm.gate.countDown();
+        var missing = Folder.resolve("Missing.dll").toString();
+        try (var registry = new ClrRegistry(vm)) {
+            assertThrows(FileNotFoundException.class,
+                    () -> registry.getCallback(missing, "X.Boot", "Call", "D"));
+            Files.writeString(Path.of(missing), "");
+            Files.writeString(Folder.resolve("Missing.runtimeconfig.json"), "{}");
+            assertNotNull(registry.getCallback(missing, "X.Boot", "Call", "D"));
+        } finally {
+            Files.deleteIfExists(Path.of(missing));
+            Files.deleteIfExists(Folder.resolve("Missing.runtimeconfig.json"));
+        }
+    }
+}
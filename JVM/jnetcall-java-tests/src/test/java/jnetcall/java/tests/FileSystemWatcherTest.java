@@ -0,0 +1,146 @@
+package jnetcall.java.tests;
+
+import jnetbase.java.files.FileSystemWatcher;
+import jnetbase.java.threads.ThreadExecutor;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public final class FileSystemWatcherTest {
+
+    private static final Path Folder = Path.of("target", "WatchTmp");
+    private static final int Count = 2000;
+
+    private static Path createFolder(String name) {
+        return TestTools.createFolder(Folder.resolve(name));
+    }
+
+    private static void createFiles(Path folder) throws Exception {
+        for (var i = 0; i < Count; i++)
+            Files.write(folder.resolve("f_" + i), new byte[1]);
+        // Not matched by the filter
+        Files.write(folder.resolve("ignored"), new byte[1]);
+    }
+
+    private static FileSystemWatcher createWatcher(Path folder, ThreadExecutor exe,
+                                                   Set<String> got, AtomicInteger calls) {
+        var watcher = new FileSystemWatcher(folder, exe, ENTRY_CREATE);
+        watcher.setFileFilter((d, n) -> n.startsWith("f_"));
+        watcher.setCallback(p -> {
+            calls.incrementAndGet();
+            got.add(p.getFileName().toString());
+        });
+        return watcher;
+    }
+
+    @Test
+    public void shouldRescanOnOverflow() throws Exception {
+        var folder = createFolder("overflow");
+        var got = ConcurrentHashMap.<String>newKeySet();
+        var calls = new AtomicInteger();
+        var blocked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        try (var exe = new ThreadExecutor();
+             var watcher = new FileSystemWatcher(folder, exe, ENTRY_CREATE)) {
+            watcher.setFileFilter((d, n) -> n.startsWith("f_"));
+            watcher.setCallback(p -> {
+                calls.incrementAndGet();
+                got.add(p.getFileName().toString());
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            watcher.enableRaisingEvents(true);
+            Files.write(folder.resolve("f_first"), new byte[1]);
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            // The watcher thread is stuck, so far more events pile up than a key holds
+            createFiles(folder);
+            release.countDown();
+            assertEquals(TestTools.await(got, calls, Count + 1).size(), Count + 1);
+        }
+    }
+
+    @Test
+    public void shouldDispatchToWorkers() throws Exception {
+        var folder = createFolder("workers");
+        var got = ConcurrentHashMap.<String>newKeySet();
+        var calls = new AtomicInteger();
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        try (var exe = new ThreadExecutor();
+             var watcher = createWatcher(folder, exe, got, calls)) {
+            watcher.setCallback(p -> {
+                threads.add(Thread.currentThread().getName());
+                calls.incrementAndGet();
+                got.add(p.getFileName().toString());
+            });
+            watcher.setWorkers(4);
+            watcher.enableRaisingEvents(true);
+            createFiles(folder);
+            assertEquals(TestTools.await(got, calls, Count).size(), Count);
+            assertEquals(threads, Set.of("FileSystemWatcher|Worker"));
+        }
+    }
+
+    @Test
+    public void shouldPollFolder() throws Exception {
+        var folder = createFolder("poll");
+        Files.write(folder.resolve("f_old"), new byte[1]);
+        var got = ConcurrentHashMap.<String>newKeySet();
+        var calls = new AtomicInteger();
+        try (var exe = new ThreadExecutor();
+             var watcher = createWatcher(folder, exe, got, calls)) {
+            watcher.setPollInterval(Duration.ofMillis(2));
+            watcher.enableRaisingEvents(true);
+            createFiles(folder);
+            var found = TestTools.await(got, calls, Count);
+            assertEquals(found.size(), Count);
+            assertFalse(found.contains("f_old"));
+        }
+    }
+
+    @Test
+    public void shouldReportReusedName() throws Exception {
+        var folder = createFolder("reuse");
+        var file = folder.resolve("f_1.s");
+        var calls = new AtomicInteger();
+        var first = new CountDownLatch(1);
+        var second = new CountDownLatch(2);
+        try (var exe = new ThreadExecutor();
+             var watcher = new FileSystemWatcher(folder, exe, ENTRY_CREATE)) {
+            watcher.setFileFilter((d, n) -> n.startsWith("f_"));
+            // Handled files are removed, so a counter that restarts brings the name back
+            watcher.setCallback(p -> {
+                calls.incrementAndGet();
+                try {
+                    Files.deleteIfExists(p);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                first.countDown();
+                second.countDown();
+            });
+            watcher.enableRaisingEvents(true);
+            Files.write(file, new byte[1]);
+            assertTrue(first.await(10, TimeUnit.SECONDS));
+            Files.write(file, new byte[1]);
+            assertTrue(second.await(10, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            assertEquals(calls.get(), 2);
+        }
+    }
+}
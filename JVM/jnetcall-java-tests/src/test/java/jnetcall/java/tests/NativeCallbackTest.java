@@ -0,0 +1,102 @@
+package jnetcall.java.tests;
+
+import jnethotel.java.Natives;
+import jnethotel.java.api.ICallback;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+public final class NativeCallbackTest {
+
+    private static final Path Source = Path.of("src", "test", "resources", "native", "echo.c");
+    private static final Path Library = Path.of("target", "NativeTmp", "libecho.so");
+
+    private ICallback _jna;
+    private ICallback _ffm;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        if (!System.getProperty("os.name").toLowerCase().contains("linux"))
+            throw new SkipException("Stub library is only built on Linux");
+        Files.createDirectories(Library.getParent());
+        var proc = new ProcessBuilder("cc", "-shared", "-fPIC", "-O2", "-o",
+                Library.toString(), Source.toString()).inheritIO();
+        try {
+            var process = proc.start();
+            if (!process.waitFor(60, TimeUnit.SECONDS) || process.exitValue() != 0)
+                throw new SkipException("Could not compile " + Source);
+        } catch (java.io.IOException e) {
+            throw new SkipException("No C compiler: " + e.getMessage());
+        }
+        _jna = Natives.getCallback(Library.toAbsolutePath(), "echo", false);
+        try {
+            _ffm = Natives.getCallback(Library.toAbsolutePath(), "echo", true);
+        } catch (UnsupportedOperationException e) {
+            // Only built with -Dforeign, so those cases are skipped
+            _ffm = null;
+        }
+    }
+
+    @AfterClass
+    public void tearDown() {
+        if (_jna != null)
+            _jna.close();
+        if (_ffm != null)
+            _ffm.close();
+    }
+
+    @DataProvider
+    public Object[][] getSizes() {
+        var sizes = new int[]{0, 1, 4091, 70_000, 1 << 20};
+        var cases = new Object[sizes.length * 2][];
+        for (var i = 0; i < sizes.length; i++) {
+            cases[i * 2] = new Object[]{sizes[i], false};
+            cases[i * 2 + 1] = new Object[]{sizes[i], true};
+        }
+        return cases;
+    }
+
+    private static byte[] createFrame(int size) {
+        var payload = new byte[size];
+        new Random(size).nextBytes(payload);
+        return ByteBuffer.allocate(4 + size).order(ByteOrder.nativeOrder())
+                .putInt(size).put(payload).array();
+    }
+
+    private ICallback getBackend(boolean foreign) {
+        if (!foreign)
+            return _jna;
+        if (_ffm == null)
+            throw new SkipException("Foreign backend is only built with -Dforeign");
+        return _ffm;
+    }
+
+    @Test(dataProvider = "getSizes")
+    public void shouldCallByteArray(int size, boolean foreign) {
+        var frame = createFrame(size);
+        var output = getBackend(foreign).callByteArray(frame);
+        assertEquals(output, frame);
+    }
+
+    @Test(dataProvider = "getSizes")
+    public void shouldCallByteBuffer(int size, boolean foreign) {
+        var frame = createFrame(size);
+        var output = getBackend(foreign).callByteBuffer(frame);
+        assertEquals(output.order(), ByteOrder.nativeOrder());
+        assertEquals(output.getInt(0), size);
+        var copy = new byte[output.remaining()];
+        output.get(copy);
+        assertEquals(copy, frame);
+    }
+}
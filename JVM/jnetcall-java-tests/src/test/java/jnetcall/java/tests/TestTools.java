@@ -0,0 +1,38 @@
+package jnetcall.java.tests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+public final class TestTools {
+
+    // Starts from an empty folder, so nothing of an earlier run is read again
+    public static Path createFolder(Path folder) {
+        try {
+            if (Files.isDirectory(folder))
+                try (var files = Files.list(folder)) {
+                    for (var file : (Iterable<Path>) files::iterator)
+                        Files.delete(file);
+                }
+            return Files.createDirectories(folder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Waits for the expected count, then a bit longer to catch anything reported twice
+    public static <T> Set<T> await(Set<T> got, AtomicInteger calls, int count) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (got.size() < count && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        Thread.sleep(50);
+        assertEquals(calls.get(), got.size(), "duplicates");
+        return got;
+    }
+}
@@ -0,0 +1,15 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.impl.io.StreamTransport;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+
+public final class BatchTransportTest extends MemTransportTest {
+
+    @Override
+    protected StreamTransport createStream(InputStream input, OutputStream output) {
+        return new StreamTransport(Encoding, input, output, 4096, Duration.ofNanos(50_000));
+    }
+}
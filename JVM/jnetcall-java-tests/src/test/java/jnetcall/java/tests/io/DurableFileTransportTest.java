@@ -0,0 +1,152 @@
+package jnetcall.java.tests.io;
+
+import jnetbase.java.threads.ThreadExecutor;
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.disk.FolderTransport;
+import jnetcall.java.tests.TestTools;
+import org.javatuples.Pair;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public final class DurableFileTransportTest extends TransportTest {
+
+    private static final Path Folder = Path.of("target", "DurableTmp");
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    @Override
+    protected Pair<ISendTransport, ISendTransport> getBoth() {
+        var offset = getNextOffset();
+        var first = Folder.resolve(16001 + offset + "");
+        var second = Folder.resolve(16051 + offset + "");
+        var exe = new ThreadExecutor();
+        var left = new FolderTransport(
+                Encoding,
+                first,
+                second,
+                exe,
+                true
+        );
+        var right = new FolderTransport(
+                Encoding,
+                second,
+                first,
+                exe,
+                true
+        );
+        return Pair.with(left, right);
+    }
+
+    @Override
+    protected int getMaxListWait() { return 20; }
+
+    // Starts from empty folders, fixed file names must not meet an earlier run's log
+    private static Path createFolder(int port) {
+        return TestTools.createFolder(Folder.resolve(port + ""));
+    }
+
+    private static MethodCall createCall(int id) {
+        return new MethodCall((short) id, "ITested", "echo", new Object[]{"Msg " + id});
+    }
+
+    private static Set<Short> receive(FolderTransport transport, int count) throws Exception {
+        var got = ConcurrentHashMap.<Short>newKeySet();
+        var calls = new AtomicInteger();
+        transport.onPush(call -> {
+            calls.incrementAndGet();
+            got.add(call.id());
+        }, MethodCall.class);
+        return new TreeSet<>(TestTools.await(got, calls, count));
+    }
+
+    private static Set<Short> range(int from, int to) {
+        var set = new TreeSet<Short>();
+        for (var i = from; i < to; i++)
+            set.add((short) i);
+        return set;
+    }
+
+    @Test
+    public void shouldReplayAfterRestart() throws Exception {
+        var offset = getNextOffset();
+        var first = createFolder(16001 + offset);
+        var second = createFolder(16051 + offset);
+        var exe = new ThreadExecutor();
+        try (var left = new FolderTransport(Encoding, first, second, exe, true)) {
+            for (var i = 0; i < 10; i++)
+                left.send(createCall(i));
+        }
+        // A crash after writing: one complete but uncommitted file, one torn
+        var frame = Encoding.encode(createCall(10));
+        Files.write(second.resolve("d_0000000000001_0000000001"), frame);
+        Files.write(second.resolve("d_0000000000001_0000000002"), new byte[]{9, 0, 0, 0, 19});
+
+        try (var left = new FolderTransport(Encoding, first, second, exe, true)) {
+            left.send(createCall(11));
+            left.flush();
+        }
+        try (var right = new FolderTransport(Encoding, second, first, exe, true)) {
+            assertEquals(receive(right, 12), range(0, 12));
+        }
+        assertFalse(Files.exists(second.resolve("d_0000000000001_0000000002")));
+    }
+
+    @Test
+    public void shouldSkipHandledAfterCrash() throws Exception {
+        var offset = getNextOffset();
+        var first = createFolder(16001 + offset);
+        var second = createFolder(16051 + offset);
+        var exe = new ThreadExecutor();
+        try (var left = new FolderTransport(Encoding, first, second, exe, true)) {
+            for (var i = 0; i < 5; i++)
+                left.send(createCall(i));
+        }
+        // Handled and logged, but the process died before removing the files
+        String handled;
+        try (var files = Files.list(second)) {
+            handled = files.map(f -> f.getFileName().toString())
+                    .filter(n -> n.endsWith(".s")).sorted().findFirst().orElseThrow();
+        }
+        var id = handled.substring(2, handled.length() - 2);
+        Files.writeString(second.resolve("inbox.log"), id + "\n");
+
+        try (var right = new FolderTransport(Encoding, second, first, exe, true)) {
+            assertEquals(receive(right, 4), range(1, 5));
+        }
+    }
+
+    @Test
+    public void shouldShareFolderBetweenWriters() throws Exception {
+        var offset = getNextOffset();
+        var first = createFolder(16001 + offset);
+        var second = createFolder(16051 + offset);
+        var exe = new ThreadExecutor();
+        // Left over from a clock ahead of ours, so both writers pick the epoch after it
+        Files.createDirectories(second);
+        Files.write(second.resolve("d_9999999999998_0000000001"), Encoding.encode(createCall(20)));
+        try (var left = new FolderTransport(Encoding, first, second, exe, true);
+             var other = new FolderTransport(Encoding, first, second, exe, true)) {
+            for (var i = 0; i < 10; i++) {
+                left.send(createCall(i));
+                other.send(createCall(10 + i));
+            }
+        }
+        try (var right = new FolderTransport(Encoding, second, first, exe, true)) {
+            assertEquals(receive(right, 21), range(0, 21));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package jnetcall.java.tests.io;
 import jnetbase.java.threads.ThreadExecutor;
 import jnetcall.java.api.io.ISendTransport;
 import jnetcall.java.impl.io.disk.FolderTransport;
+import jnetcall.java.tests.TestTools;
 import org.javatuples.Pair;
 
 import java.nio.file.Path;
@@ -10,7 +11,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public final class FileTransportTest extends TransportTest {
 
-    private final String Folder = "FileTmp";
+    private static final Path Folder = Path.of("target", "FileTmp");
 
     private static AtomicInteger _offset = new AtomicInteger();
 
@@ -21,8 +22,8 @@ public final class FileTransportTest extends TransportTest {
     @Override
     protected Pair<ISendTransport, ISendTransport> getBoth() {
         var offset = getNextOffset();
-        var first = Path.of(Folder, 13001 + offset + "");
-        var second = Path.of(Folder, 13051 + offset + "");
+        var first = createFolder(13001 + offset);
+        var second = createFolder(13051 + offset);
         var exe = new ThreadExecutor();
         var left = new FolderTransport(
                 Encoding,
@@ -41,4 +42,9 @@ public final class FileTransportTest extends TransportTest {
 
     @Override
     protected int getMaxListWait() { return 20; }
+
+    // Names carry a time, so files of an earlier run would pile up and be read again
+    private static Path createFolder(int port) {
+        return TestTools.createFolder(Folder.resolve(port + ""));
+    }
 }
@@ -0,0 +1,89 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.impl.enc.BinaryEncoding;
+import jnetcall.java.impl.io.FrameDecoder;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import static org.testng.Assert.*;
+
+public final class FrameDecoderTest {
+
+    private static byte[] createFrames(BinaryEncoding encoding) throws Exception {
+        var output = new ByteArrayOutputStream();
+        for (var size : new int[]{1, 100, 70_000, 3, 250_000}) {
+            var blob = new byte[size];
+            var bytes = encoding.encode(new MethodCall((short) 7, "c", "m", new Object[]{blob}));
+            output.write(bytes);
+        }
+        return output.toByteArray();
+    }
+
+    private static void checkFrame(BinaryEncoding encoding, ByteBuffer frame, int size) throws Exception {
+        var call = encoding.decode(frame.array(), MethodCall.class);
+        assertEquals(call.id(), (short) 7);
+        assertEquals(((byte[]) call.args()[0]).length, size);
+    }
+
+    @Test
+    public void shouldReadSplitStream() throws Exception {
+        var encoding = new BinaryEncoding();
+        var input = new ByteArrayInputStream(createFrames(encoding)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        try (var decoder = new FrameDecoder()) {
+            for (var size : new int[]{1, 100, 70_000, 3, 250_000})
+                checkFrame(encoding, decoder.read((InputStream) input), size);
+            assertThrows(EOFException.class, () -> decoder.read((InputStream) input));
+        }
+    }
+
+    @Test
+    public void shouldReadSplitChannel() throws Exception {
+        var encoding = new BinaryEncoding();
+        var bytes = ByteBuffer.wrap(createFrames(encoding));
+        var channel = new ReadableByteChannel() {
+            private int _calls;
+
+            @Override
+            public int read(ByteBuffer dst) {
+                if (!bytes.hasRemaining())
+                    return -1;
+                if (_calls++ % 3 == 0)
+                    return 0;
+                var count = Math.min(dst.remaining(), Math.min(bytes.remaining(), 4099));
+                dst.put(bytes.slice(bytes.position(), count));
+                bytes.position(bytes.position() + count);
+                return count;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (var decoder = new FrameDecoder()) {
+            for (var size : new int[]{1, 100, 70_000, 3, 250_000}) {
+                ByteBuffer frame;
+                while ((frame = decoder.read(channel)) == null) {
+                }
+                checkFrame(encoding, frame, size);
+            }
+            assertThrows(EOFException.class, () -> decoder.read(channel));
+        }
+    }
+}
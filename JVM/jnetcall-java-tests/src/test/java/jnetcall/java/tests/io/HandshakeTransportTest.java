@@ -0,0 +1,9 @@
+package jnetcall.java.tests.io;
+
+public final class HandshakeTransportTest extends MemTransportTest {
+
+    @Override
+    protected boolean isHandshaking() {
+        return true;
+    }
+}
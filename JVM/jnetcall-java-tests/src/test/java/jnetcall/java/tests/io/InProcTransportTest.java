@@ -0,0 +1,49 @@
+package jnetcall.java.tests.io;
+
+import jnetbase.java.threads.ThreadExecutor;
+import jnetcall.java.api.ICaller;
+import jnetcall.java.client.InProcClient;
+import jnetcall.java.server.ClassHosting;
+import jnetcall.java.server.ServiceLot;
+import jnetcall.java.tests.CallTest;
+import org.example.api.ICalculator;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public final class InProcTransportTest extends CallTest {
+
+    @Override
+    protected String patch(String input) {
+        return input.replace("E","E+")
+                .replace("true","True")
+                .replace("false","False");
+    }
+
+    @Override
+    protected <T extends AutoCloseable> T create(Class<T> clazz) {
+        var lot = new ServiceLot();
+        var hosting = new ClassHosting(new TestedService(), lot, new ThreadExecutor());
+        hosting.registerAll();
+        hosting.serve();
+        return InProcClient.create(clazz, lot);
+    }
+
+    @Test
+    public void shouldFailCallsWhenCrossingFails() throws Exception {
+        ICaller broken = (in, out) -> {
+            throw new IOException("Broken");
+        };
+        try (var client = InProcClient.create(ICalculator.class, broken)) {
+            var error = CompletableFuture.supplyAsync(() ->
+                    expectThrows(RuntimeException.class, () -> client.add(1, 2))
+            ).get(5, TimeUnit.SECONDS);
+            assertTrue(error.getMessage().contains("Broken"), error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.disk.JournalTransport;
+import org.javatuples.Pair;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public final class JournalTransportTest extends TransportTest {
+
+    private static final Path Folder = Path.of("target", "JournalTmp");
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    @Override
+    protected Pair<ISendTransport, ISendTransport> getBoth() {
+        var offset = getNextOffset();
+        var first = Folder.resolve(15001 + offset + "");
+        var second = Folder.resolve(15051 + offset + "");
+        var left = new JournalTransport(
+                Encoding,
+                first,
+                second
+        );
+        var right = new JournalTransport(
+                Encoding,
+                second,
+                first
+        );
+        return Pair.with(left, right);
+    }
+
+    private static long countSegments(Path folder) throws Exception {
+        try (var files = Files.list(folder)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static MethodCall createCall(int id, int size) {
+        return new MethodCall((short) id, "ITested", "echo", new Object[]{new byte[size]});
+    }
+
+    @Test
+    public void shouldRollAndReclaim() throws Exception {
+        var offset = getNextOffset();
+        var first = Folder.resolve(15001 + offset + "");
+        var second = Folder.resolve(15051 + offset + "");
+        try (var left = new JournalTransport(Encoding, first, second, 4096);
+             var right = new JournalTransport(Encoding, second, first, 4096)) {
+            for (var i = 0; i < 200; i++)
+                left.send(createCall(i, i % 7 == 0 ? 10_000 : 100));
+            assertTrue(countSegments(second) > 50, "segments");
+            for (var i = 0; i < 200; i++) {
+                var call = right.pull(MethodCall.class);
+                assertEquals(call.id(), (short) i);
+                assertEquals(((byte[]) call.args()[0]).length, i % 7 == 0 ? 10_000 : 100);
+            }
+            assertEquals(countSegments(second), 1);
+        }
+    }
+
+    @Test
+    public void shouldResumeAfterRestart() throws Exception {
+        var offset = getNextOffset();
+        var first = Folder.resolve(15001 + offset + "");
+        var second = Folder.resolve(15051 + offset + "");
+        try (var left = new JournalTransport(Encoding, first, second, 4096)) {
+            for (var i = 0; i < 20; i++)
+                left.send(createCall(i, 500));
+            try (var right = new JournalTransport(Encoding, second, first, 4096)) {
+                for (var i = 0; i < 8; i++)
+                    assertEquals(right.pull(MethodCall.class).id(), (short) i);
+            }
+        }
+        try (var left = new JournalTransport(Encoding, first, second, 4096);
+             var right = new JournalTransport(Encoding, second, first, 4096)) {
+            for (var i = 20; i < 30; i++)
+                left.send(createCall(i, 500));
+            for (var i = 8; i < 30; i++)
+                assertEquals(right.pull(MethodCall.class).id(), (short) i);
+        }
+    }
+}
@@ -5,22 +5,27 @@ import jnetcall.java.api.io.ISendTransport;
 import jnetcall.java.impl.io.StreamTransport;
 import org.javatuples.Pair;
 
-public final class MemTransportTest extends TransportTest {
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class MemTransportTest extends TransportTest {
 
     @Override
     protected Pair<ISendTransport, ISendTransport> getBoth() {
         var mem11001 = new MemPipeStream();
         var mem11002 = new MemPipeStream();
-        var left = new StreamTransport(
-                Encoding,
+        var left = createStream(
                 mem11001.asI(),
                 mem11002.asO()
         );
-        var right = new StreamTransport(
-                Encoding,
+        var right = createStream(
                 mem11002.asI(),
                 mem11001.asO()
         );
         return Pair.with(left, right);
     }
+
+    protected StreamTransport createStream(InputStream input, OutputStream output) {
+        return new StreamTransport(Encoding, input, output);
+    }
 }
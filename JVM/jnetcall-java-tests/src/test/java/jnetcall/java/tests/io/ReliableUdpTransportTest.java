@@ -0,0 +1,185 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.net.ReliableUdpTransport;
+import org.javatuples.Pair;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+public final class ReliableUdpTransportTest extends TransportTest {
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    @Override
+    protected Pair<ISendTransport, ISendTransport> getBoth() {
+        var offset = getNextOffset();
+        var portOne = 11101 + offset;
+        var portTwo = 11151 + offset;
+        var left = new ReliableUdpTransport(
+                Encoding,
+                "localhost", portOne,
+                "localhost", portTwo
+        );
+        var right = new ReliableUdpTransport(
+                Encoding,
+                "localhost", portTwo,
+                "localhost", portOne
+        );
+        return Pair.with(left, right);
+    }
+
+    // Drops, duplicates and swaps datagrams on their way to the target
+    private static final class LossyRelay implements AutoCloseable {
+
+        private final DatagramChannel _channel;
+        private final InetSocketAddress _target;
+        private final Random _random;
+        private final Thread _thread;
+
+        LossyRelay(int port, int targetPort, long seed) throws IOException {
+            _channel = DatagramChannel.open().bind(new InetSocketAddress("localhost", port));
+            _target = new InetSocketAddress("localhost", targetPort);
+            _random = new Random(seed);
+            _thread = new Thread(this::loop, "LossyRelay|" + port);
+            _thread.setDaemon(true);
+            _thread.start();
+        }
+
+        private void loop() {
+            var buffer = ByteBuffer.allocate(65535);
+            ByteBuffer held = null;
+            try {
+                while (true) {
+                    buffer.clear();
+                    _channel.receive(buffer);
+                    buffer.flip();
+                    var roll = _random.nextInt(100);
+                    if (roll < 10)
+                        continue;
+                    var copy = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+                    if (roll < 20 && held == null) {
+                        held = copy;
+                        continue;
+                    }
+                    _channel.send(copy.duplicate(), _target);
+                    if (roll < 25)
+                        _channel.send(copy.duplicate(), _target);
+                    if (held != null) {
+                        _channel.send(held, _target);
+                        held = null;
+                    }
+                }
+            } catch (IOException e) {
+                // Closed
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            _channel.close();
+        }
+    }
+
+    @Test
+    public void shouldSurviveLossyLink() throws Exception {
+        var offset = getNextOffset();
+        var portOne = 11101 + offset;
+        var portTwo = 11151 + offset;
+        var relayOne = 11201 + offset;
+        var relayTwo = 11251 + offset;
+        var sizes = new int[]{0, 1, 1199, 1200, 1201, 70_000, 250_000, 1 << 20};
+        try (var toRight = new LossyRelay(relayOne, portTwo, 42);
+             var toLeft = new LossyRelay(relayTwo, portOne, 43);
+             var left = new ReliableUdpTransport(Encoding, "localhost", portOne, "localhost", relayOne);
+             var right = new ReliableUdpTransport(Encoding, "localhost", portTwo, "localhost", relayTwo)) {
+            var expected = new HashMap<Short, byte[]>();
+            for (var i = 0; i < sizes.length; i++) {
+                var payload = new byte[sizes[i]];
+                new Random(i).nextBytes(payload);
+                expected.put((short) i, payload);
+                left.send(new MethodCall((short) i, "ITested", "echo", new Object[]{payload}));
+            }
+            for (var i = 0; i < sizes.length; i++) {
+                var call = right.pull(MethodCall.class);
+                var payload = expected.remove(call.id());
+                assertEquals(call.args()[0], payload, "id = " + call.id());
+            }
+            assertEquals(expected.size(), 0);
+        }
+    }
+
+    private static ByteBuffer createChunk(int index, int count, int length, int offset, int size) {
+        var buffer = ByteBuffer.allocate(25 + size).order(ByteOrder.nativeOrder());
+        buffer.put((byte) 1).putInt(7).putInt(0).putInt(index)
+                .putInt(count).putInt(length).putInt(offset);
+        return buffer.put(new byte[size]).flip();
+    }
+
+    @Test
+    public void shouldDropBadDatagrams() throws Exception {
+        var offset = getNextOffset();
+        var portOne = 11101 + offset;
+        var portTwo = 11151 + offset;
+        var target = new InetSocketAddress("localhost", portTwo);
+        try (var left = new ReliableUdpTransport(Encoding, "localhost", portOne, "localhost", portTwo);
+             var right = new ReliableUdpTransport(Encoding, "localhost", portTwo, "localhost", portOne);
+             var rogue = DatagramChannel.open()) {
+            // Starts a message of two chunks in ten bytes
+            rogue.send(createChunk(0, 2, 10, 0, 5), target);
+            // Same message, but with another count or a bigger length
+            rogue.send(createChunk(5, 10, 10, 5, 5), target);
+            rogue.send(createChunk(1, 2, 100, 50, 5), target);
+            // Cut off in the middle of the header
+            rogue.send(ByteBuffer.wrap(new byte[]{1, 0, 0}), target);
+
+            var payload = new byte[5000];
+            new Random(7).nextBytes(payload);
+            left.send(new MethodCall((short) 1, "ITested", "echo", new Object[]{payload}));
+            var call = CompletableFuture.supplyAsync(() -> right.pull(MethodCall.class))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(call.args()[0], payload);
+        }
+    }
+
+    @Test
+    public void shouldRejectTooLargeMessages() throws Exception {
+        var offset = getNextOffset();
+        var portOne = 11101 + offset;
+        var portTwo = 11151 + offset;
+        var target = new InetSocketAddress("localhost", portTwo);
+        try (var left = new ReliableUdpTransport(Encoding, "localhost", portOne, "localhost", portTwo);
+             var right = new ReliableUdpTransport(Encoding, "localhost", portTwo, "localhost", portOne,
+                     1200, 1 << 12);
+             var rogue = DatagramChannel.open()) {
+            // Announces a gigabyte, which must not be allocated
+            rogue.send(createChunk(0, 1 << 15, 1 << 30, 0, 5), target);
+
+            var big = new byte[5000];
+            left.send(new MethodCall((short) 1, "ITested", "echo", new Object[]{big}));
+            var small = new byte[50];
+            new Random(7).nextBytes(small);
+            left.send(new MethodCall((short) 2, "ITested", "echo", new Object[]{small}));
+            var call = CompletableFuture.supplyAsync(() -> right.pull(MethodCall.class))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(call.id(), 2);
+            assertEquals(call.args()[0], small);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.mem.SharedMemoryTransport;
+import org.javatuples.Pair;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
+
+public final class SharedMemoryTransportTest extends TransportTest {
+
+    private final String Folder = "ShmTmp";
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    private Path getNextFile() {
+        return Path.of("target", Folder, 14101 + getNextOffset() + ".shm");
+    }
+
+    @Override
+    protected Pair<ISendTransport, ISendTransport> getBoth() {
+        var file = getNextFile();
+        var right = new SharedMemoryTransport(
+                Encoding,
+                file, 1 << 16, true
+        );
+        var left = new SharedMemoryTransport(
+                Encoding,
+                file, 1 << 16, false
+        );
+        return Pair.with(left, right);
+    }
+
+    private Object[] transfer(Object[] args, int count, int capacity) throws Exception {
+        var file = getNextFile();
+        try (var right = new SharedMemoryTransport(Encoding, file, capacity, true);
+             var left = new SharedMemoryTransport(Encoding, file, capacity, false)) {
+            // The ring is too small for all of it, so the writer waits for the reader
+            var sending = CompletableFuture.runAsync(() -> {
+                for (var i = 0; i < count; i++)
+                    left.send(new MethodCall((short) i, "R", "r", args));
+            });
+            Object[] last = null;
+            for (var i = 0; i < count; i++) {
+                var call = right.pull(MethodCall.class);
+                assertEquals(call.id(), i);
+                last = call.args();
+            }
+            sending.get(10, TimeUnit.SECONDS);
+            return last;
+        }
+    }
+
+    @Test
+    public void shouldWrapAround() throws Exception {
+        var text = "x".repeat(100);
+        var last = transfer(new Object[]{text}, 2000, 1 << 12);
+        assertEquals(last, new Object[]{text});
+    }
+
+    @Test
+    public void shouldPassFrameLargerThanRing() throws Exception {
+        var bytes = new byte[1 << 20];
+        for (var i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) i;
+        var last = transfer(new Object[]{bytes}, 3, 1 << 12);
+        assertEquals((byte[]) last[0], bytes);
+    }
+
+    @Test
+    public void shouldRejectOtherCapacity() throws Exception {
+        var file = getNextFile();
+        try (var right = new SharedMemoryTransport(Encoding, file, 1 << 12, true)) {
+            expectThrows(RuntimeException.class,
+                    () -> new SharedMemoryTransport(Encoding, file, 1 << 13, false));
+        }
+    }
+
+    @Test
+    public void shouldRejectForeignFile() throws Exception {
+        var file = getNextFile();
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[1 << 14]);
+        expectThrows(RuntimeException.class,
+                () -> new SharedMemoryTransport(Encoding, file, 1 << 12, false));
+    }
+}
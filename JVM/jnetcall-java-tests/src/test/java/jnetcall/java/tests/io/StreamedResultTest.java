@@ -0,0 +1,218 @@
+package jnetcall.java.tests.io;
+
+import jnetbase.java.threads.ThreadExecutor;
+import jnetcall.java.api.enc.IEncoding;
+import jnetcall.java.client.ClassProxy;
+import jnetcall.java.client.tools.ClientHelper;
+import jnetcall.java.impl.enc.BinaryEncoding;
+import jnetcall.java.impl.io.net.TcpDuplexTransport;
+import jnetcall.java.impl.io.net.TcpServerTransport;
+import jnetcall.java.impl.util.ClassTools;
+import jnetcall.java.server.ClassHosting;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.*;
+
+public final class StreamedResultTest {
+
+    private static final int ChunkSize = 64 * 1024;
+
+    private static final AtomicLong Served = new AtomicLong();
+    private static volatile CountDownLatch Closed = new CountDownLatch(1);
+
+    public interface IStreamed extends AutoCloseable {
+
+        InputStream readBytes(int size);
+
+        InputStream readBroken(int size);
+
+        Iterator<String> readLines(int count);
+    }
+
+    public static final class StreamedService implements IStreamed {
+
+        @Override
+        public InputStream readBytes(int size) {
+            return new PatternStream(size, false);
+        }
+
+        @Override
+        public InputStream readBroken(int size) {
+            return new PatternStream(size, true);
+        }
+
+        @Override
+        public Iterator<String> readLines(int count) {
+            return IntStream.range(0, count).mapToObj(i -> "Line " + i).iterator();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class PatternStream extends InputStream {
+
+        private final long _size;
+        private final boolean _broken;
+        private long _pos;
+
+        PatternStream(long size, boolean broken) {
+            _size = size;
+            _broken = broken;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (_pos >= _size)
+                return -1;
+            if (_broken && _pos >= _size / 2)
+                throw new IOException("Broken at " + _pos);
+            var count = (int) Math.min(len, _size - _pos);
+            for (var i = 0; i < count; i++)
+                b[off + i] = (byte) ((_pos + i) % 251);
+            _pos += count;
+            Served.addAndGet(count);
+            return count;
+        }
+
+        @Override
+        public void close() {
+            Closed.countDown();
+        }
+    }
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    private final IEncoding<byte[]> _encoding = new BinaryEncoding();
+    private ClassHosting _hosting;
+    private int _port;
+
+    @BeforeClass
+    public void setup() {
+        _port = 17001 + getNextOffset();
+        var server = new TcpServerTransport(_encoding, "localhost", _port);
+        _hosting = new ClassHosting(new StreamedService(), server, new ThreadExecutor());
+        _hosting.registerAll();
+        _hosting.serve();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        _hosting.close();
+    }
+
+    private IStreamed createClient() {
+        var transport = new TcpDuplexTransport(_encoding, "localhost", _port, false);
+        var proxy = new ClassProxy(transport, new ThreadExecutor());
+        proxy.listen();
+        return ClientHelper.create(IStreamed.class, proxy);
+    }
+
+    @Test
+    public void shouldStreamLargeResult() throws Exception {
+        var size = 64 * 1024 * 1024;
+        try (var client = createClient();
+             var stream = client.readBytes(size)) {
+            Served.set(0);
+            assertEquals(stream.read(), 0);
+            Thread.sleep(300);
+            // Nobody read on, so the sender must have stopped at the window
+            assertTrue(Served.get() <= (long) (ClassTools.StreamWindow + 2) * ChunkSize, Served.get() + "");
+
+            var buffer = new byte[8192];
+            long total = 1;
+            int read;
+            while ((read = stream.read(buffer)) > 0) {
+                for (var i = 0; i < read; i++)
+                    if (buffer[i] != (byte) ((total + i) % 251))
+                        fail("Wrong byte at " + (total + i));
+                total += read;
+            }
+            assertEquals(total, size);
+        }
+    }
+
+    @Test
+    public void shouldStreamItems() throws Exception {
+        try (var client = createClient()) {
+            var lines = new ArrayList<String>();
+            client.readLines(1000).forEachRemaining(lines::add);
+            assertEquals(lines.size(), 1000);
+            assertEquals(lines.get(0), "Line 0");
+            assertEquals(lines.get(999), "Line 999");
+        }
+    }
+
+    @Test
+    public void shouldCancelStream() throws Exception {
+        Closed = new CountDownLatch(1);
+        try (var client = createClient()) {
+            try (var stream = client.readBytes(Integer.MAX_VALUE)) {
+                assertEquals(stream.read(), 0);
+            }
+            assertTrue(Closed.await(5, TimeUnit.SECONDS));
+            var lines = new ArrayList<String>();
+            client.readLines(3).forEachRemaining(lines::add);
+            assertEquals(lines.size(), 3);
+        }
+    }
+
+    @Test
+    public void shouldFailStream() throws Exception {
+        try (var client = createClient();
+             var stream = client.readBroken(1024 * 1024)) {
+            var error = expectThrows(IOException.class, stream::readAllBytes);
+            assertTrue(error.getMessage().contains("Broken at"), error.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldServeWhileStreamsWait() throws Exception {
+        // More streams waiting for credit than the shared pool has threads
+        var count = ForkJoinPool.getCommonPoolParallelism() + 2;
+        try (var client = createClient()) {
+            var streams = new ArrayList<InputStream>();
+            try {
+                for (var i = 0; i < count; i++) {
+                    var stream = client.readBytes(Integer.MAX_VALUE);
+                    assertEquals(stream.read(), 0);
+                    streams.add(stream);
+                }
+                var lines = CompletableFuture.supplyAsync(() -> {
+                    var found = new ArrayList<String>();
+                    client.readLines(3).forEachRemaining(found::add);
+                    return found;
+                }).get(10, TimeUnit.SECONDS);
+                assertEquals(lines.size(), 3);
+            } finally {
+                for (var stream : streams)
+                    stream.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.api.enc.IByteEncoding;
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.FrameDecoder;
+import jnetcall.java.impl.io.net.TcpDuplexTransport;
+import org.javatuples.Pair;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+public final class TcpDuplexTransportTest extends TransportTest {
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    @Override
+    protected Pair<ISendTransport, ISendTransport> getBoth() {
+        var port = 12101 + getNextOffset();
+        var right = new TcpDuplexTransport(
+                Encoding,
+                "localhost", port, true
+        );
+        var left = new TcpDuplexTransport(
+                Encoding,
+                "localhost", port, false
+        );
+        return Pair.with(left, right);
+    }
+
+    private short readId(FrameDecoder decoder, SocketChannel channel) throws Exception {
+        var frame = decoder.read(channel);
+        return IByteEncoding.decode(Encoding, frame, MethodCall.class).id();
+    }
+
+    @Test
+    public void shouldResendOnlyUnwrittenAfterReset() throws Exception {
+        var port = 12101 + getNextOffset();
+        // Far more than the socket buffers hold, so writing blocks
+        var big = new Object[]{new byte[32 << 20]};
+        try (var server = ServerSocketChannel.open().bind(new InetSocketAddress("localhost", port));
+             var client = new TcpDuplexTransport(Encoding, "localhost", port, false)) {
+            var first = server.accept();
+            var sending = CompletableFuture.runAsync(() ->
+                    client.send(new MethodCall((short) 1, "A", "a", big)));
+            Thread.sleep(200);
+            // Both wait for the first, so they go out as one batch
+            client.send(new MethodCall((short) 2, "B", "b", new Object[0]));
+            client.send(new MethodCall((short) 3, "C", "c", big));
+            assertEquals(readId(new FrameDecoder(), first), 1);
+            Thread.sleep(200);
+
+            // The small one is written by now, but killed before it is read
+            first.setOption(StandardSocketOptions.SO_LINGER, 0);
+            first.close();
+
+            try (var second = server.accept()) {
+                // The cut one starts over, the written one may have run already
+                assertEquals(readId(new FrameDecoder(), second), 3);
+                var failed = CompletableFuture.supplyAsync(() -> client.pull(MethodResult.class))
+                        .get(10, TimeUnit.SECONDS);
+                assertEquals(failed.id(), 2);
+                assertEquals(failed.status(), MethodStatus.MethodFailed.getValue());
+            }
+            sending.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package jnetcall.java.tests.io;
+
+import jnetcall.java.api.flow.MethodCall;
+import jnetcall.java.api.flow.MethodResult;
+import jnetcall.java.api.flow.MethodStatus;
+import jnetcall.java.api.io.ISendTransport;
+import jnetcall.java.impl.io.net.TcpDuplexTransport;
+import jnetcall.java.impl.io.net.TcpServerTransport;
+import jnetcall.java.impl.util.ClassTools;
+import org.example.api.ICalculator;
+import org.javatuples.Pair;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+
+public final class TcpServerTransportTest extends TransportTest {
+
+    private static AtomicInteger _offset = new AtomicInteger();
+
+    private static int getNextOffset() {
+        return _offset.incrementAndGet();
+    }
+
+    @Override
+    protected Pair<ISendTransport, ISendTransport> getBoth() {
+        var port = 12201 + getNextOffset();
+        var right = new TcpServerTransport(
+                Encoding,
+                "localhost", port
+        );
+        var left = new TcpDuplexTransport(
+                Encoding,
+                "localhost", port, false
+        );
+        return Pair.with(left, right);
+    }
+
+    @Test
+    public void shouldServeManyClients() throws Exception {
+        var port = 12201 + getNextOffset();
+        var server = new TcpServerTransport(Encoding, "localhost", port);
+        createServer(TestedService.class, server, false);
+        var tasks = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 0; i < 16; i++) {
+            var number = i;
+            tasks.add(CompletableFuture.runAsync(() -> {
+                var transport = new TcpDuplexTransport(Encoding, "localhost", port, false);
+                try (var client = createClient(ICalculator.class, transport)) {
+                    for (var j = 0; j < 100; j++)
+                        assertEquals(client.add(number, j), number + j);
+                    assertEquals(client.getName(), "className#");
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (var task : tasks)
+            task.get();
+        server.close();
+    }
+
+    private static MethodResult[] callRaw(TcpDuplexTransport transport, MethodCall call, int answers)
+            throws Exception {
+        var sub = ClassTools.Subscribe;
+        if (call.methodName().startsWith("add"))
+            transport.send(new MethodCall(ClassTools.NoCallId, sub, sub, new Object[]{call.id(), 0, call.args()[0]}));
+        transport.send(call);
+        return CompletableFuture.supplyAsync(() -> {
+            var results = new MethodResult[answers];
+            for (var i = 0; i < answers; i++)
+                results[i] = transport.pull(MethodResult.class);
+            return results;
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldKeepDelegatesApart() throws Exception {
+        var port = 12201 + getNextOffset();
+        var server = new TcpServerTransport(Encoding, "localhost", port);
+        createServer(TestedService.class, server, false);
+        try (var one = new TcpDuplexTransport(Encoding, "localhost", port, false);
+             var two = new TcpDuplexTransport(Encoding, "localhost", port, false)) {
+            // Like two processes, both clients number their first delegate the same
+            var del = (short) 1;
+            var add = new MethodCall((short) 1, "ITriggering", "addThresholdReached", new Object[]{del});
+            callRaw(one, add, 1);
+            callRaw(two, add, 1);
+            var start = new MethodCall((short) 2, "ITriggering", "startPub", new Object[]{2});
+            var got = callRaw(one, start, 3);
+            var cont = MethodStatus.Continue.getValue();
+            assertEquals(Arrays.stream(got).filter(r -> r.status() == cont && r.id() == del).count(), 2);
+            got = CompletableFuture.supplyAsync(() -> new MethodResult[]{
+                    two.pull(MethodResult.class), two.pull(MethodResult.class)
+            }).get(5, TimeUnit.SECONDS);
+            assertEquals(Arrays.stream(got).filter(r -> r.status() == cont && r.id() == del).count(), 2);
+        }
+        server.close();
+    }
+}
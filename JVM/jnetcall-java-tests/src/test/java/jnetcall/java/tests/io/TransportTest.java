@@ -19,6 +19,14 @@ public abstract class TransportTest extends CallTest {
 
     protected final IEncoding<byte[]> Encoding = new BinaryEncoding();
 
+    protected boolean isHandshaking() {
+        return false;
+    }
+
+    protected int getMaxCalls() {
+        return 0;
+    }
+
     @Override
     protected String patch(String input) {
         return input.replace("E","E+")
@@ -31,22 +39,28 @@ public abstract class TransportTest extends CallTest {
         var both = getBoth();
         var left = both.getValue0();
         var right = both.getValue1();
-        var client = createClient(clazz, left);
         createServer(TestedService.class, right, false);
-        return client;
+        return createClient(clazz, left);
     }
 
-    private static <T extends AutoCloseable> T createClient(Class<T> clazz, ISendTransport transport) {
+    protected <T extends AutoCloseable> T createClient(Class<T> clazz, ISendTransport transport) {
         var executor = new ThreadExecutor();
         var interceptor = new ClassProxy(transport, executor);
         interceptor.listen();
+        if (isHandshaking())
+            try {
+                if (!interceptor.handshake())
+                    throw new IllegalStateException("No handshake!");
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
         return ClientHelper.create(clazz, interceptor);
     }
 
-    private static <T> IHosting createServer(Class<T> clazz, ISendTransport transport, boolean blocking) {
+    protected <T> IHosting createServer(Class<T> clazz, ISendTransport transport, boolean blocking) {
         var executor = new ThreadExecutor();
         var instance = Reflect.createNew(clazz);
-        var hosting = new ClassHosting(instance, transport, executor);
+        var hosting = new ClassHosting(instance, transport, executor, getMaxCalls());
         hosting.registerAll();
         if (blocking)
             hosting.serveAndWait();
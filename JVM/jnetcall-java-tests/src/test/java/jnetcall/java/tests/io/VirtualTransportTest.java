@@ -0,0 +1,9 @@
+package jnetcall.java.tests.io;
+
+public final class VirtualTransportTest extends MemTransportTest {
+
+    @Override
+    protected int getMaxCalls() {
+        return 64;
+    }
+}
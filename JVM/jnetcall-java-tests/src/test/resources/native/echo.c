@@ -0,0 +1,16 @@
+#include <stdint.h>
+#include <stdlib.h>
+#include <string.h>
+
+static uint8_t* last;
+
+// Mirrors the managed callback: takes a size-prefixed frame and returns one
+uint8_t* echo(const uint8_t* input)
+{
+    int32_t size;
+    memcpy(&size, input, sizeof(size));
+    free(last);
+    last = (uint8_t*) malloc(sizeof(size) + size);
+    memcpy(last, input, sizeof(size) + size);
+    return last;
+}
@@ -0,0 +1,97 @@
+package jnethotel.java;
+
+import jnethotel.java.api.ICallback;
+import jnethotel.java.api.IVmRef;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class ClrRegistry implements AutoCloseable {
+
+    private static ClrRegistry _default;
+
+    private final IVmRef _vmRef;
+    private final ConcurrentMap<String, CompletableFuture<ICallback>> _callbacks;
+    private final ExecutorService _loader;
+
+    private Clr _clr;
+
+    public ClrRegistry(IVmRef vmRef) {
+        _vmRef = vmRef;
+        _callbacks = new ConcurrentHashMap<>();
+        _loader = Executors.newCachedThreadPool(r -> {
+            var thread = new Thread(r, getClass().getSimpleName() + "|Load");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized ClrRegistry getDefault() {
+        if (_default == null) {
+            var registry = new ClrRegistry(Natives.getVmRef());
+            Runtime.getRuntime().addShutdownHook(new Thread(registry::close));
+            _default = registry;
+        }
+        return _default;
+    }
+
+    public synchronized Clr getClr() throws Exception {
+        if (_clr == null) {
+            _vmRef.loadLib();
+            _clr = new Clr(_vmRef);
+        }
+        return _clr;
+    }
+
+    private static String toKey(String dll, String type, String method, String delegate) {
+        var path = new File(dll).getAbsolutePath();
+        return String.join("|", path, type, method, delegate);
+    }
+
+    // Entry points are resolved once per assembly and may load in parallel
+    public CompletableFuture<ICallback> getCallbackAsync(String dll, String type,
+                                                         String method, String delegate) {
+        var key = toKey(dll, type, method, delegate);
+        var future = _callbacks.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+            try {
+                var core = getClr().getCore();
+                return Clr.getCallback(core, dll, type, method, delegate);
+            } catch (Exception e) {
+                // Failures are not cached, so the next caller tries again
+                _callbacks.remove(key);
+                throw new CompletionException(e);
+            }
+        }, _loader));
+        return future;
+    }
+
+    public ICallback getCallback(String dll, String type, String method, String delegate)
+            throws Exception {
+        try {
+            return getCallbackAsync(dll, type, method, delegate).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        _loader.shutdownNow();
+        for (var future : _callbacks.values())
+            if (future.isDone() && !future.isCompletedExceptionally())
+                future.join().close();
+        _callbacks.clear();
+        synchronized (this) {
+            if (_clr != null)
+                _clr.close();
+        }
+    }
+}
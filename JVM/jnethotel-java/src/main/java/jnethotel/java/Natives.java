@@ -1,15 +1,34 @@
 package jnethotel.java;
 
 import com.sun.jna.Platform;
+import jnethotel.java.api.ICallback;
 import jnethotel.java.api.IVmRef;
 import jnethotel.java.bsd.BsdVmRef;
+import jnethotel.java.interop.JnaCallback;
 import jnethotel.java.linux.LinuxVmRef;
 import jnethotel.java.mac.MacVmRef;
 import jnethotel.java.windows.WinVmRef;
 
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+
 public final class Natives {
 
+    private static final String BackendKey = "jnethotel.backend";
+    private static final String ForeignPkg = "jnethotel.java.foreign.";
+    private static final String NoForeign = "Foreign backend is only built with -Dforeign on JDK 21";
+
+    public static boolean useForeign() {
+        return "ffm".equalsIgnoreCase(System.getProperty(BackendKey));
+    }
+
     public static IVmRef getVmRef() {
+        return getVmRef(useForeign());
+    }
+
+    public static IVmRef getVmRef(boolean foreign) {
+        if (foreign)
+            return getForeignVmRef();
         if (isLinux())
             return new LinuxVmRef();
         if (isWindows())
@@ -23,6 +42,51 @@ public final class Natives {
         throw new UnsupportedOperationException(desc.trim());
     }
 
+    private static IVmRef getForeignVmRef() {
+        if (isLinux())
+            return createForeign("libnethost.so", Path.of("/usr/share/dotnet"), false);
+        if (isWindows())
+            return createForeign("nethost.dll", Path.of("C:\\Program Files\\dotnet"), true);
+        if (isMac())
+            return createForeign("libnethost.dylib", Path.of("/usr/local/share/dotnet/"), false);
+        if (isBSD())
+            return createForeign("libnethost.so", Path.of("/usr/share/dotnet"), false);
+
+        var desc = System.getProperty("os.name") + " " + System.getProperty("os.version");
+        throw new UnsupportedOperationException(desc.trim());
+    }
+
+    private static IVmRef createForeign(String dllName, Path libRoot, boolean wide) {
+        try {
+            var clazz = Class.forName(ForeignPkg + "FfmVmRef");
+            var creator = clazz.getConstructor(String.class, Path.class, boolean.class);
+            return (IVmRef) creator.newInstance(dllName, libRoot, wide);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new UnsupportedOperationException(NoForeign, e);
+        }
+    }
+
+    public static ICallback getCallback(Path library, String symbol) {
+        return getCallback(library, symbol, useForeign());
+    }
+
+    // Binds a plain native export, e.g. from an ahead-of-time compiled library
+    public static ICallback getCallback(Path library, String symbol, boolean foreign) {
+        if (!foreign)
+            return JnaCallback.load(library, symbol);
+        try {
+            var clazz = Class.forName(ForeignPkg + "FfmCallback");
+            var loader = clazz.getMethod("load", Path.class, String.class);
+            return (ICallback) loader.invoke(null, library, symbol);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            throw new UnsupportedOperationException(e.getCause());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new UnsupportedOperationException(NoForeign, e);
+        }
+    }
+
     private static boolean isWindows() {
         return Platform.isWindows();
     }
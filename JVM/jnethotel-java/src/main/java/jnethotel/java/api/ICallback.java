@@ -0,0 +1,13 @@
+package jnethotel.java.api;
+
+import java.nio.ByteBuffer;
+
+public interface ICallback extends AutoCloseable {
+
+    byte[] callByteArray(byte[] input);
+
+    ByteBuffer callByteBuffer(byte[] input);
+
+    @Override
+    void close();
+}
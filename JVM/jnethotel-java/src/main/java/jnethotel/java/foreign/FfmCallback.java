@@ -0,0 +1,81 @@
+package jnethotel.java.foreign;
+
+import jnethotel.java.api.ICallback;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT_UNALIGNED;
+
+public final class FfmCallback implements ICallback {
+
+    private static final int Header = 4;
+    private static final long MinInputSize = 4096;
+    private static final FunctionDescriptor Call = FunctionDescriptor.of(ADDRESS, ADDRESS);
+
+    private final MethodHandle _function;
+
+    private Arena _inputArena;
+    private MemorySegment _input;
+
+    public FfmCallback(MemorySegment function) {
+        _function = Linker.nativeLinker().downcallHandle(function, Call);
+        _input = MemorySegment.NULL;
+    }
+
+    public static FfmCallback load(Path library, String symbol) {
+        var lookup = SymbolLookup.libraryLookup(library, Arena.global());
+        var function = lookup.find(symbol).orElseThrow(() -> new UnsatisfiedLinkError(symbol));
+        return new FfmCallback(function);
+    }
+
+    private MemorySegment toSegment(byte[] data) {
+        if (data.length > _input.byteSize()) {
+            freeInput();
+            var size = Math.max(MinInputSize, Long.highestOneBit(data.length) << 1);
+            _inputArena = Arena.ofShared();
+            _input = _inputArena.allocate(size, 8);
+        }
+        MemorySegment.copy(data, 0, _input, ValueLayout.JAVA_BYTE, 0, data.length);
+        return _input;
+    }
+
+    private void freeInput() {
+        if (_inputArena == null)
+            return;
+        _inputArena.close();
+        _inputArena = null;
+        _input = MemorySegment.NULL;
+    }
+
+    private MemorySegment invoke(byte[] input) {
+        try {
+            var outputPtr = (MemorySegment) _function.invokeExact(toSegment(input));
+            var size = Header + outputPtr.reinterpret(Header).get(JAVA_INT_UNALIGNED, 0);
+            return outputPtr.reinterpret(size);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public synchronized byte[] callByteArray(byte[] input) {
+        return invoke(input).toArray(ValueLayout.JAVA_BYTE);
+    }
+
+    @Override
+    public synchronized ByteBuffer callByteBuffer(byte[] input) {
+        return invoke(input).asByteBuffer().order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public synchronized void close() {
+        freeInput();
+    }
+}
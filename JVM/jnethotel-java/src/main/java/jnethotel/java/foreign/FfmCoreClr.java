@@ -0,0 +1,186 @@
+package jnethotel.java.foreign;
+
+import jnethotel.java.api.ICallback;
+import jnethotel.java.api.ICoreClr;
+import jnethotel.java.interop.api.hostfxr_delegate_type;
+
+import java.io.File;
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.foreign.ValueLayout.*;
+
+final class FfmCoreClr implements ICoreClr {
+
+    private static final Linker Native = Linker.nativeLinker();
+
+    private static final FunctionDescriptor GetHostFxrPath =
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS);
+    private static final FunctionDescriptor InitForConfig =
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS);
+    private static final FunctionDescriptor GetRuntimeDelegate =
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, JAVA_INT, ADDRESS);
+    private static final FunctionDescriptor Close =
+            FunctionDescriptor.of(JAVA_INT, ADDRESS);
+    private static final FunctionDescriptor SetErrorWriter =
+            FunctionDescriptor.of(ADDRESS, ADDRESS);
+    private static final FunctionDescriptor ErrorWriter =
+            FunctionDescriptor.ofVoid(ADDRESS);
+    private static final FunctionDescriptor LoadAssembly =
+            FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS, ADDRESS, ADDRESS, ADDRESS);
+
+    private final boolean _wide;
+    private final MethodHandle _get_hostfxr_path;
+
+    private MethodHandle _hostfxr_initialize_for_runtime_config;
+    private MethodHandle _hostfxr_get_runtime_delegate;
+    private MethodHandle _hostfxr_close;
+    private MemorySegment _error_writer;
+    private volatile String _lastError;
+
+    private final Map<String, MethodHandle> _loaders = new HashMap<>();
+
+    FfmCoreClr(SymbolLookup nethost, boolean wide) {
+        _wide = wide;
+        _get_hostfxr_path = Native.downcallHandle(find(nethost, "get_hostfxr_path"), GetHostFxrPath);
+    }
+
+    private static MemorySegment find(SymbolLookup lookup, String name) {
+        return lookup.find(name).orElseThrow(() -> new UnsatisfiedLinkError(name));
+    }
+
+    private MemorySegment wrap(Arena arena, String java) {
+        if (!_wide)
+            return arena.allocateUtf8String(java);
+        var bytes = (java + '\0').getBytes(StandardCharsets.UTF_16LE);
+        return arena.allocate(bytes.length, 2).copyFrom(MemorySegment.ofArray(bytes));
+    }
+
+    private String toString(MemorySegment text) {
+        if (!_wide)
+            return text.getUtf8String(0);
+        var length = 0L;
+        while (text.get(JAVA_CHAR_UNALIGNED, length * 2) != 0)
+            length++;
+        var chars = text.asSlice(0, length * 2).toArray(JAVA_CHAR_UNALIGNED);
+        return new String(chars);
+    }
+
+    private void onError(MemorySegment message) {
+        _lastError = toString(message.reinterpret(Integer.MAX_VALUE));
+    }
+
+    private String withError(String message) {
+        var error = _lastError;
+        return error == null ? message : message + " (" + error.trim() + ")";
+    }
+
+    @Override
+    public synchronized boolean load_hostfxr() {
+        if (_hostfxr_close != null)
+            return true;
+        final var maxPath = 260;
+        try (var arena = Arena.ofConfined()) {
+            var unit = _wide ? 2 : 1;
+            var buffer = arena.allocate((long) maxPath * unit, unit);
+            var buffer_size = arena.allocate(JAVA_LONG, maxPath);
+            if ((int) _get_hostfxr_path.invokeExact(buffer, buffer_size, MemorySegment.NULL) != 0)
+                return false;
+
+            var hostfxr = SymbolLookup.libraryLookup(toString(buffer), Arena.global());
+            _hostfxr_initialize_for_runtime_config = Native.downcallHandle(
+                    find(hostfxr, "hostfxr_initialize_for_runtime_config"), InitForConfig);
+            _hostfxr_get_runtime_delegate = Native.downcallHandle(
+                    find(hostfxr, "hostfxr_get_runtime_delegate"), GetRuntimeDelegate);
+            _hostfxr_close = Native.downcallHandle(find(hostfxr, "hostfxr_close"), Close);
+
+            var onError = MethodHandles.lookup().bind(this, "onError",
+                    MethodType.methodType(void.class, MemorySegment.class));
+            _error_writer = Native.upcallStub(onError, ErrorWriter, Arena.global());
+            var setErrorWriter = Native.downcallHandle(find(hostfxr, "hostfxr_set_error_writer"), SetErrorWriter);
+            var ignored = (MemorySegment) setErrorWriter.invokeExact(_error_writer);
+            return true;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private synchronized MethodHandle get_load_assembly_and_get_function_pointer_fn(String runtime_config_path)
+            throws Throwable {
+        var cached = _loaders.get(runtime_config_path);
+        if (cached != null)
+            return cached;
+        try (var arena = Arena.ofConfined()) {
+            var fn = get_load_assembly_and_get_function_pointer_fn(arena, runtime_config_path);
+            var loader = Native.downcallHandle(fn, LoadAssembly);
+            _loaders.put(runtime_config_path, loader);
+            return loader;
+        }
+    }
+
+    private MemorySegment get_load_assembly_and_get_function_pointer_fn(Arena arena, String runtime_config_path)
+            throws Throwable {
+        var ptr_host_context_handle = arena.allocate(ADDRESS);
+        var rc = (int) _hostfxr_initialize_for_runtime_config.invokeExact(wrap(arena, runtime_config_path),
+                MemorySegment.NULL, ptr_host_context_handle);
+
+        var host_context_handle = ptr_host_context_handle.get(ADDRESS, 0);
+        if (rc < 0 || host_context_handle.equals(MemorySegment.NULL))
+            throw new UnsupportedOperationException(withError("hostfxr_initialize_for_runtime_config failed with: " + rc));
+
+        try {
+            var ptr_fn = arena.allocate(ADDRESS);
+            rc = (int) _hostfxr_get_runtime_delegate.invokeExact(host_context_handle,
+                    hostfxr_delegate_type.hdt_load_assembly_and_get_function_pointer, ptr_fn);
+
+            var fn = ptr_fn.get(ADDRESS, 0);
+            if (rc != 0 || fn.equals(MemorySegment.NULL))
+                throw new UnsupportedOperationException(withError("hostfxr_get_runtime_delegate failed with: " + rc));
+            return fn;
+        } finally {
+            var ignored = (int) _hostfxr_close.invokeExact(host_context_handle);
+        }
+    }
+
+    @Override
+    public ICallback load_assembly_and_get_callback(String runtime_config_path, String assembly_path,
+                                                   String type_name, String method_name,
+                                                   String delegate_type_name) throws Exception {
+        if (!load_hostfxr())
+            throw new Exception("Failed to resolve hostfxr");
+
+        try (var arena = Arena.ofConfined()) {
+            var runtime_config_path_file = new File(runtime_config_path).getAbsoluteFile();
+            var load_assembly_and_get_function_pointer =
+                    get_load_assembly_and_get_function_pointer_fn(runtime_config_path_file.toString());
+
+            var ptr_managed_fn = arena.allocate(ADDRESS);
+            var assembly_path_file = new File(assembly_path).getAbsoluteFile();
+            var rc = (int) load_assembly_and_get_function_pointer.invokeExact(
+                    wrap(arena, assembly_path_file.toString()),
+                    wrap(arena, type_name),
+                    wrap(arena, method_name),
+                    wrap(arena, delegate_type_name),
+                    MemorySegment.NULL,
+                    ptr_managed_fn);
+
+            var managed_fn = ptr_managed_fn.get(ADDRESS, 0);
+            if (rc != 0 || managed_fn.equals(MemorySegment.NULL)) {
+                var message = String.format("load_assembly_and_get_function_pointer failed with: %s", rc);
+                throw new Exception(withError(message));
+            }
+            return new FfmCallback(managed_fn);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package jnethotel.java.foreign;
+
+import jnethotel.java.api.ICoreClr;
+import jnethotel.java.api.IVmRef;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.SymbolLookup;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class FfmVmRef implements IVmRef {
+
+    private final String _dllName;
+    private final Path _libRoot;
+    private final boolean _wide;
+
+    private SymbolLookup _nethost;
+
+    public FfmVmRef(String dllName, Path libRoot, boolean wide) {
+        _dllName = dllName;
+        _libRoot = libRoot;
+        _wide = wide;
+    }
+
+    @Override
+    public String getVmDll() {
+        return _dllName;
+    }
+
+    @Override
+    public void loadLib() throws IOException {
+        var libFileName = getVmDll();
+        try (var found = Files.find(_libRoot, 7,
+                (p, b) -> p.getFileName().toString().equals(libFileName))) {
+            var libPath = found.findFirst().orElseThrow();
+            _nethost = SymbolLookup.libraryLookup(libPath, Arena.global());
+        }
+    }
+
+    @Override
+    public ICoreClr getCoreClr() {
+        return new FfmCoreClr(_nethost, _wide);
+    }
+}
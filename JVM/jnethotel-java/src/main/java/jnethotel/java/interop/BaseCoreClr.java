@@ -4,11 +4,14 @@ import com.sun.jna.Function;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.PointerByReference;
+import jnethotel.java.api.ICallback;
 import jnethotel.java.api.ICoreClr;
 import jnethotel.java.interop.api.hostfxr_library;
 import jnethotel.java.interop.api.nethost_library;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 
 public abstract class BaseCoreClr<TString, TBuffer, TByRef> implements ICoreClr {
 
@@ -23,7 +26,14 @@ public abstract class BaseCoreClr<TString, TBuffer, TByRef> implements ICoreClr
     protected int hdt_load_assembly_and_get_function_pointer;
     protected int funcFlags;
 
-    public Function get_load_assembly_and_get_function_pointer_fn(String runtime_config_path) {
+    private final Map<String, Function> _loaders = new HashMap<>();
+
+    // Initializing a runtime config is serialized, the resulting delegate is reused
+    public synchronized Function get_load_assembly_and_get_function_pointer_fn(String runtime_config_path) {
+        var cached = _loaders.get(runtime_config_path);
+        if (cached != null)
+            return cached;
+
         var load_assembly_and_get_function_pointer_fn = Pointer.NULL;
 
         var parameters = createByRef();
@@ -36,7 +46,8 @@ public abstract class BaseCoreClr<TString, TBuffer, TByRef> implements ICoreClr
 
         host_context_handle = ptr_host_context_handle.getValue();
 
-        if (rc != 0 || host_context_handle == Pointer.NULL) {
+        // Positive codes report an already running or differently configured host
+        if (rc < 0 || host_context_handle == Pointer.NULL) {
             throw new UnsupportedOperationException("hostfxr_initialize_for_runtime_config failed with: " + rc);
         } else {
             var ptr_load_assembly_and_get_function_pointer_fn = new PointerByReference(load_assembly_and_get_function_pointer_fn);
@@ -53,10 +64,15 @@ public abstract class BaseCoreClr<TString, TBuffer, TByRef> implements ICoreClr
         }
 
         hostfxr_library.hostfxr_close(host_context_handle);
-        return Function.getFunction(load_assembly_and_get_function_pointer_fn, funcFlags);
+        var loader = Function.getFunction(load_assembly_and_get_function_pointer_fn, funcFlags);
+        _loaders.put(runtime_config_path, loader);
+        return loader;
     }
 
-    public boolean load_hostfxr() {
+    public synchronized boolean load_hostfxr() {
+        if (hostfxr_library != null)
+            return true;
+
         final var maxPath = 260;
         var buffer = allocate(maxPath);
 
@@ -72,7 +88,7 @@ public abstract class BaseCoreClr<TString, TBuffer, TByRef> implements ICoreClr
         return true;
     }
 
-    public Function load_assembly_and_get_callback(String runtime_config_path, String assembly_path,
+    public ICallback load_assembly_and_get_callback(String runtime_config_path, String assembly_path,
                                                    String type_name, String method_name,
                                                    String delegate_type_name) throws Exception {
         if (!load_hostfxr()) {
@@ -107,6 +123,6 @@ public abstract class BaseCoreClr<TString, TBuffer, TByRef> implements ICoreClr
             throw new Exception(message);
         }
 
-        return Function.getFunction(managed_fn, Function.C_CONVENTION);
+        return new JnaCallback(Function.getFunction(managed_fn, Function.C_CONVENTION));
     }
 }
@@ -0,0 +1,77 @@
+package jnethotel.java.interop;
+
+import com.sun.jna.Function;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+import jnethotel.java.api.ICallback;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+public final class JnaCallback implements ICallback {
+
+    private static final int Header = 4;
+    private static final long MinInputSize = 4096;
+
+    private final Function _function;
+
+    private long _inputPeer;
+    private long _inputSize;
+
+    public JnaCallback(Function function) {
+        _function = function;
+    }
+
+    public static JnaCallback load(Path library, String symbol) {
+        var lib = NativeLibrary.getInstance(library.toAbsolutePath().toString());
+        return new JnaCallback(lib.getFunction(symbol));
+    }
+
+    private Pointer toPointer(byte[] data) {
+        if (data.length > _inputSize) {
+            freeInput();
+            var size = Math.max(MinInputSize, Long.highestOneBit(data.length) << 1);
+            var peer = Native.malloc(size);
+            if (peer == 0)
+                throw new OutOfMemoryError("Cannot allocate " + size + " B");
+            _inputPeer = peer;
+            _inputSize = size;
+        }
+        var pointer = new Pointer(_inputPeer);
+        pointer.write(0, data, 0, data.length);
+        return pointer;
+    }
+
+    private void freeInput() {
+        if (_inputPeer == 0)
+            return;
+        Native.free(_inputPeer);
+        _inputPeer = 0;
+        _inputSize = 0;
+    }
+
+    private static int toSize(Pointer ptr) {
+        return Header + ptr.getInt(0);
+    }
+
+    @Override
+    public synchronized byte[] callByteArray(byte[] input) {
+        var outputPtr = _function.invokePointer(new Object[]{toPointer(input)});
+        var array = new byte[toSize(outputPtr)];
+        outputPtr.read(0, array, 0, array.length);
+        return array;
+    }
+
+    @Override
+    public synchronized ByteBuffer callByteBuffer(byte[] input) {
+        var outputPtr = _function.invokePointer(new Object[]{toPointer(input)});
+        return outputPtr.getByteBuffer(0, toSize(outputPtr)).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public synchronized void close() {
+        freeInput();
+    }
+}
@@ -1,33 +1,72 @@
 package jnetproto.java.beans;
 
+import jnetbase.java.io.GrowableStream;
 import jnetbase.java.meta.TypeToken;
 import jnetproto.java.api.IDataReader;
-import jnetproto.java.api.IDataWriter;
 import jnetproto.java.core.BinaryReader;
 import jnetproto.java.core.BinaryWriter;
 import jnetproto.java.tools.Conversions;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 
 public final class ProtoConvert implements AutoCloseable {
 
+    private static final int BufferSize = 1024;
+
     private final Object _writeLock = new Object();
     private final Object _readLock = new Object();
 
     private final IDataReader _reader;
-    private final IDataWriter _writer;
+    private final BinaryWriter _writer;
+    private final GrowableStream _frame;
+    private final OutputStream _target;
     private final ProtoSettings _cfg;
 
     public ProtoConvert(InputStream stdOutput, OutputStream stdInput, ProtoSettings cfg) {
-        _reader = new BinaryReader(stdOutput);
-        _writer = new BinaryWriter(stdInput);
+        this(new BinaryReader(stdOutput), stdInput, cfg);
+    }
+
+    public ProtoConvert(ByteBuffer input, ProtoSettings cfg) {
+        this(new BinaryReader(input), null, cfg);
+    }
+
+    private ProtoConvert(IDataReader reader, OutputStream stdInput, ProtoSettings cfg) {
+        _reader = reader;
+        if (stdInput == null || stdInput instanceof GrowableStream) {
+            _frame = (GrowableStream) stdInput;
+            _target = null;
+        } else {
+            _frame = new GrowableStream();
+            _target = stdInput;
+        }
+        _writer = _frame == null ? null : new BinaryWriter(_frame, BufferSize);
         _cfg = cfg;
     }
 
     public void writeObject(Object obj) throws Exception {
-        var bytes = serializeObject(obj, _cfg);
+        var args = (Object[]) Conversions.toObjectArray(obj);
         synchronized (_writeLock) {
-            _writer.writeBinary(bytes);
+            var start = _frame.size();
+            try {
+                _writer.writeI32(0);
+                _writer.writeObject(args);
+                _writer.flush();
+            } catch (Exception e) {
+                // Nothing of a failed message may end up in front of the next one
+                _writer.discard();
+                _frame.truncate(start);
+                throw e;
+            }
+            var size = _frame.size() - start - 4;
+            _frame.patchInt(start, size);
+            if (_target == null)
+                return;
+            try {
+                _frame.writeTo(_target);
+            } finally {
+                _frame.reset();
+            }
         }
     }
 
@@ -37,54 +76,36 @@ public final class ProtoConvert implements AutoCloseable {
     }
 
     public <T> T readObject(TypeToken<T> type) throws Exception {
-        byte[] bytes;
+        Object[] args;
         synchronized (_readLock) {
-            bytes = _reader.readBinary();
+            _reader.readI32();
+            args = (Object[]) _reader.readObject();
         }
-        return deserializeObject(type, bytes, _cfg);
+        return deserializeObject(type, args, _cfg);
     }
 
     public void flush() throws IOException {
         synchronized (_writeLock) {
-            _writer.flush();
+            if (_writer != null)
+                _writer.flush();
+            if (_target != null)
+                _target.flush();
         }
     }
 
     @Override
     public void close() throws Exception {
         _reader.close();
-        _writer.close();
-    }
-
-    private static byte[] serializeObject(Object obj, ProtoSettings s)
-            throws Exception {
-        var raw = Conversions.toObjectArray(obj);
-        var args = (Object[]) raw;
-        return serializeObject(args, s);
+        if (_writer != null)
+            _writer.close();
+        if (_target != null)
+            _target.close();
     }
 
-    private static <T> T deserializeObject(TypeToken<T> token, Object[] args, ProtoSettings s)
-            throws Exception {
+    @SuppressWarnings("unchecked")
+    private static <T> T deserializeObject(TypeToken<T> token, Object[] args, ProtoSettings s) {
         var type = token.toType();
         var raw = Conversions.fromObjectArray(type, args);
         return (T) raw;
     }
-
-    private static byte[] serializeObject(Object[] args, ProtoSettings s)
-            throws Exception {
-        try (var mem = new ByteArrayOutputStream();
-             IDataWriter writer = new BinaryWriter(mem)) {
-            writer.writeObject(args);
-            return mem.toByteArray();
-        }
-    }
-
-    private static <T> T deserializeObject(TypeToken<T> clazz, byte[] bytes, ProtoSettings s)
-            throws Exception {
-        try (var mem = new ByteArrayInputStream(bytes);
-             IDataReader reader = new BinaryReader(mem)) {
-            var args = (Object[]) reader.readObject();
-            return deserializeObject(clazz, args, s);
-        }
-    }
 }
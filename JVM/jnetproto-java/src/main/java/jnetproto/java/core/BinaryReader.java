@@ -1,17 +1,18 @@
 package jnetproto.java.core;
 
-import jnetbase.java.meta.Reflect;
 import jnetbase.java.sys.BitConverter;
 import jnetproto.java.api.DataType;
 import jnetproto.java.api.IDataReader;
 import jnetproto.java.tools.Tuples;
 import org.javatuples.Tuple;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -22,17 +23,68 @@ import java.util.*;
 public class BinaryReader implements IDataReader {
     private final Charset _enc;
     private final InputStream _stream;
+    private final ByteBuffer _buffer;
+    private final boolean _buffered;
 
     public BinaryReader(InputStream stream) {
+        this(stream, 0);
+    }
+
+    public BinaryReader(InputStream stream, int bufferSize) {
         _enc = StandardCharsets.UTF_8;
         _stream = stream;
+        _buffered = bufferSize > 0;
+        _buffer = ByteBuffer.allocate(Math.max(bufferSize, 16)).order(ByteOrder.nativeOrder());
+        _buffer.limit(0);
+    }
+
+    public BinaryReader(ByteBuffer buffer) {
+        _enc = StandardCharsets.UTF_8;
+        _stream = null;
+        _buffered = false;
+        _buffer = buffer.slice().order(ByteOrder.nativeOrder());
+    }
+
+    private ByteBuffer require(int size) throws IOException {
+        var missing = size - _buffer.remaining();
+        if (missing <= 0)
+            return _buffer;
+        if (_stream == null)
+            throw new EOFException("Got " + _buffer.remaining() + " B instead of " + size + "!");
+        _buffer.compact();
+        var array = _buffer.array();
+        while (missing > 0) {
+            var pos = _buffer.position();
+            var len = _buffered ? _buffer.capacity() - pos : missing;
+            var got = _stream.read(array, pos, len);
+            if (got < 0) {
+                _buffer.flip();
+                throw new EOFException("Got " + (size - missing) + " B instead of " + size + "!");
+            }
+            _buffer.position(pos + got);
+            missing -= got;
+        }
+        _buffer.flip();
+        return _buffer;
+    }
+
+    private int readByte() throws IOException {
+        return require(1).get() & 0xFF;
     }
 
     private byte[] readBytes(int size) throws IOException {
+        if (_stream == null && size > _buffer.remaining())
+            throw new EOFException("Got " + _buffer.remaining() + " B instead of " + size + "!");
         var bytes = new byte[size];
-        var length = _stream.read(bytes);
-        if (length != size && size != 0)
-            throw new IllegalArgumentException("Got " + length + " B instead of " + size + "!");
+        var cached = Math.min(size, _buffer.remaining());
+        _buffer.get(bytes, 0, cached);
+        var offset = cached;
+        while (offset < size) {
+            var got = _stream.read(bytes, offset, size - offset);
+            if (got < 0)
+                throw new EOFException("Got " + offset + " B instead of " + size + "!");
+            offset += got;
+        }
         return bytes;
     }
 
@@ -43,32 +95,32 @@ public class BinaryReader implements IDataReader {
 
     @Override
     public byte readI8() throws IOException {
-        return readBytes(1)[0];
+        return require(1).get();
     }
 
     @Override
     public short readI16() throws IOException {
-        return BitConverter.toInt16(readBytes(2));
+        return require(2).getShort();
     }
 
     @Override
     public int readI32() throws IOException {
-        return BitConverter.toInt32(readBytes(4));
+        return require(4).getInt();
     }
 
     @Override
     public long readI64() throws IOException {
-        return BitConverter.toInt64(readBytes(8));
+        return require(8).getLong();
     }
 
     @Override
     public float readF32() throws IOException {
-        return BitConverter.toFloat(readBytes(4));
+        return require(4).getFloat();
     }
 
     @Override
     public double readF64() throws IOException {
-        return BitConverter.toDouble(readBytes(8));
+        return require(8).getDouble();
     }
 
     @Override
@@ -88,7 +140,13 @@ public class BinaryReader implements IDataReader {
 
     private String readUtf8(boolean wide) throws IOException {
         var size = wide ? readI16() : readI8();
-        return _enc.decode(ByteBuffer.wrap(readBytes(size))).toString();
+        if (size <= _buffer.capacity() && _buffer.hasArray()) {
+            var buffer = require(size);
+            var pos = buffer.position();
+            buffer.position(pos + size);
+            return new String(buffer.array(), buffer.arrayOffset() + pos, size, _enc);
+        }
+        return new String(readBytes(size), _enc);
     }
 
     @Override
@@ -112,8 +170,8 @@ public class BinaryReader implements IDataReader {
 
     @Override
     public Object readArray() throws IOException {
-        var item = DataTypes.toDataType(_stream.read());
-        var rank = _stream.read();
+        var item = DataTypes.toDataType(readByte());
+        var rank = readByte();
         var lengths = new int[rank];
         for (var i = 0; i < rank; i++)
             lengths[i] = readI32();
@@ -132,8 +190,8 @@ public class BinaryReader implements IDataReader {
     @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public Map readMap() throws IOException {
-        var keyKind = DataTypes.toDataType(_stream.read());
-        var valKind = DataTypes.toDataType(_stream.read());
+        var keyKind = DataTypes.toDataType(readByte());
+        var valKind = DataTypes.toDataType(readByte());
         var size = readI32();
         var map = new TreeMap();
         for (var i = 0; i < size; i++) {
@@ -152,9 +210,7 @@ public class BinaryReader implements IDataReader {
             var obj = readObject();
             args[i] = obj;
         }
-        var method = Arrays.stream(Tuples.class.getMethods())
-                .filter(m -> m.getName().equals("create") && m.getParameterCount() == args.length);
-        return (Tuple) Reflect.invoke(method.findFirst().orElseThrow(), null, args);
+        return Tuples.fromArray(args);
     }
 
     @Override
@@ -189,20 +245,19 @@ public class BinaryReader implements IDataReader {
         return (List<?>) readIterable(new ArrayList<>());
     }
 
-    private Iterable<?> readIterable(Iterable<?> coll) throws IOException {
-        var valKind = DataTypes.toDataType(_stream.read());
+    private Iterable<?> readIterable(Collection<Object> coll) throws IOException {
+        var valKind = DataTypes.toDataType(readByte());
         var size = readI32();
-        var adder = Reflect.getMethod(coll, "add", Object.class);
         for (var i = 0; i < size; i++) {
             var val = readObject(valKind);
-            Reflect.invoke(adder, coll, new Object[]{val});
+            coll.add(val);
         }
         return coll;
     }
 
     @Override
     public Object readObject() throws IOException {
-        var kind = DataTypes.toDataType(_stream.read());
+        var kind = DataTypes.toDataType(readByte());
         return readObject(kind);
     }
 
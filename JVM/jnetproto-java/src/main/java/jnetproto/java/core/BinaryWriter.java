@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -22,11 +24,52 @@ public class BinaryWriter implements IDataWriter {
     private final Charset _enc;
     private final DateTimeFormatter _fmt;
     private final OutputStream _stream;
+    private final ByteBuffer _buffer;
+    private final boolean _buffered;
 
     public BinaryWriter(OutputStream stream) {
+        this(stream, 0);
+    }
+
+    public BinaryWriter(OutputStream stream, int bufferSize) {
         _enc = Charset.forName("UTF8");
         _fmt = DateTimeFormatter.ofPattern("SSSSSSS");
         _stream = stream;
+        _buffered = bufferSize > 0;
+        _buffer = ByteBuffer.allocate(Math.max(bufferSize, 16)).order(ByteOrder.nativeOrder());
+    }
+
+    private ByteBuffer reserve(int size) throws IOException {
+        if (_buffer.remaining() < size)
+            drain();
+        return _buffer;
+    }
+
+    private void commit() throws IOException {
+        if (!_buffered)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        var size = _buffer.position();
+        if (size == 0)
+            return;
+        _stream.write(_buffer.array(), 0, size);
+        _buffer.clear();
+    }
+
+    private void writeRaw(int value) throws IOException {
+        reserve(1).put((byte) value);
+        commit();
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        if (_buffered && bytes.length <= _buffer.capacity()) {
+            reserve(bytes.length).put(bytes);
+            return;
+        }
+        drain();
+        _stream.write(bytes);
     }
 
     @Override
@@ -36,32 +79,37 @@ public class BinaryWriter implements IDataWriter {
 
     @Override
     public void writeI8(byte value) throws IOException {
-        _stream.write(new byte[]{value});
+        writeRaw(value);
     }
 
     @Override
     public void writeI16(short value) throws IOException {
-        _stream.write(BitConverter.getBytes(value));
+        reserve(2).putShort(value);
+        commit();
     }
 
     @Override
     public void writeI32(int value) throws IOException {
-        _stream.write(BitConverter.getBytes(value));
+        reserve(4).putInt(value);
+        commit();
     }
 
     @Override
     public void writeI64(long value) throws IOException {
-        _stream.write(BitConverter.getBytes(value));
+        reserve(8).putLong(value);
+        commit();
     }
 
     @Override
     public void writeF32(float value) throws IOException {
-        _stream.write(BitConverter.getBytes(value));
+        reserve(4).putFloat(value);
+        commit();
     }
 
     @Override
     public void writeF64(double value) throws IOException {
-        _stream.write(BitConverter.getBytes(value));
+        reserve(8).putDouble(value);
+        commit();
     }
 
     @Override
@@ -89,7 +137,7 @@ public class BinaryWriter implements IDataWriter {
             writeI16((short) bytes.length);
         else
             writeI8((byte) bytes.length);
-        _stream.write(bytes);
+        writeRaw(bytes);
     }
 
     @Override
@@ -107,7 +155,7 @@ public class BinaryWriter implements IDataWriter {
 
     @Override
     public void writeGuid(UUID value) throws IOException {
-        _stream.write(BitConverter.getBytes(value));
+        writeRaw(BitConverter.getBytes(value));
     }
 
     @Override
@@ -161,7 +209,7 @@ public class BinaryWriter implements IDataWriter {
     @Override
     public void writeBinary(byte[] value) throws IOException {
         writeI32(value.length);
-        _stream.write(value);
+        writeRaw(value);
     }
 
     private void writeIterable(Iterable<?> raw, boolean skipHeader) throws IOException {
@@ -193,20 +241,20 @@ public class BinaryWriter implements IDataWriter {
         var kind = DataTypes.getKind(value);
         if (!skipHeader)
         {
-            _stream.write(DataTypes.getByte(kind));
+            writeRaw(DataTypes.getByte(kind));
             if (kind instanceof DataTypes.ArrayDt adt)
             {
-                _stream.write(DataTypes.getByte(adt.Item()));
-                _stream.write((byte)adt.Rank());
+                writeRaw(DataTypes.getByte(adt.Item()));
+                writeRaw((byte)adt.Rank());
             }
             else if (kind instanceof DataTypes.MapDt mdt)
             {
-                _stream.write(DataTypes.getByte(mdt.Key()));
-                _stream.write(DataTypes.getByte(mdt.Val()));
+                writeRaw(DataTypes.getByte(mdt.Key()));
+                writeRaw(DataTypes.getByte(mdt.Val()));
             }
             else if (kind instanceof DataTypes.ListDt ldt)
             {
-                _stream.write(DataTypes.getByte(ldt.Item()));
+                writeRaw(DataTypes.getByte(ldt.Item()));
             }
         }
         if (kind instanceof DataTypes.EnumDt edt)
@@ -240,8 +288,14 @@ public class BinaryWriter implements IDataWriter {
         }
     }
 
+    // Forgets buffered bytes that were not drained yet
+    public void discard() {
+        _buffer.clear();
+    }
+
     @Override
     public void flush() throws IOException {
+        drain();
         _stream.flush();
     }
 
@@ -249,6 +303,7 @@ public class BinaryWriter implements IDataWriter {
     public void close() throws Exception {
         if (_stream == null)
             return;
+        drain();
         _stream.close();
     }
 }
@@ -0,0 +1,173 @@
+package jnetproto.java.tools;
+
+import jnetbase.java.meta.Reflect;
+import jnetbase.java.sys.ArrayX;
+import jnetproto.java.api.DataType;
+import jnetproto.java.core.DataTypes;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Codecs {
+
+    private static final MethodHandles.Lookup Lookup = MethodHandles.publicLookup();
+
+    private static final Map<Class<?>, Encoder> Encoders = new ConcurrentHashMap<>();
+    private static final Map<Type, Decoder> Decoders = new ConcurrentHashMap<>();
+
+    public static Encoder getEncoder(Class<?> type) {
+        return Encoders.computeIfAbsent(type, Encoder::new);
+    }
+
+    public static Decoder getDecoder(Type type) {
+        return Decoders.computeIfAbsent(type, Decoder::new);
+    }
+
+    private static MethodHandle toHandle(Method method, int params) throws IllegalAccessException {
+        if (method == null)
+            return null;
+        var handle = Lookup.unreflect(method);
+        var type = MethodType.genericMethodType(params + 1);
+        return handle.asType(params == 0 ? type : type.changeReturnType(void.class));
+    }
+
+    public static final class Encoder {
+
+        private final Class<?> _type;
+        private final MethodHandle[] _getters;
+
+        private Encoder(Class<?> type) {
+            _type = type;
+            try {
+                if (type.isRecord()) {
+                    var parts = type.getRecordComponents();
+                    _getters = new MethodHandle[parts.length];
+                    for (var i = 0; i < parts.length; i++)
+                        _getters[i] = toHandle(parts[i].getAccessor(), 0);
+                } else {
+                    var props = Reflect.getProperties(type);
+                    _getters = new MethodHandle[props.size()];
+                    for (var i = 0; i < _getters.length; i++)
+                        _getters[i] = toHandle(props.get(i).get(), 0);
+                }
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(type.toString(), e);
+            }
+        }
+
+        public Object[] encode(Object obj) throws Throwable {
+            var args = new Object[_getters.length];
+            for (var i = 0; i < args.length; i++) {
+                var getter = _getters[i];
+                if (getter == null)
+                    throw new IllegalArgumentException("No getter #" + i + ": " + _type);
+                var propVal = (Object) getter.invokeExact(obj);
+                args[i] = Conversions.toObjectArray(propVal);
+            }
+            return args;
+        }
+    }
+
+    private record Creator(MethodHandle handle, Class<?>[] raw, Type[] types) {
+
+        static Creator of(Constructor<?> ctor) throws IllegalAccessException {
+            var params = ctor.getParameterCount();
+            var handle = Lookup.unreflectConstructor(ctor)
+                    .asType(MethodType.genericMethodType(params))
+                    .asSpreader(Object[].class, params);
+            return new Creator(handle, ctor.getParameterTypes(), ctor.getGenericParameterTypes());
+        }
+
+        Object create(Object[] args) throws Throwable {
+            Conversions.convert(types, args);
+            for (var i = 0; i < args.length; i++)
+                args[i] = Conversions.convertRaw(args[i], types[i]);
+            return (Object) handle.invokeExact(args);
+        }
+    }
+
+    public static final class Decoder {
+
+        private final Type _type;
+        private final DataTypes.IDataType _kind;
+        private volatile Creator[] _creators;
+        private volatile MethodHandle _factory;
+        private volatile MethodHandle[] _setters;
+
+        private Decoder(Type type) {
+            _type = type;
+            _kind = DataTypes.getKind(type);
+        }
+
+        public Object decode(Object[] args) throws Throwable {
+            if (_kind.Kind() != DataType.Unknown) {
+                if (_kind instanceof DataTypes.ArrayDt at && at.Item().Kind() == DataType.Unknown) {
+                    var arrayType = ((Class<?>) _type).getComponentType();
+                    return ArrayX.asTypedArray(args, arrayType, Conversions::convertRaw);
+                }
+                if (_kind instanceof DataTypes.ListDt lt && lt.Item().Kind() == DataType.Unknown) {
+                    var listType = ((ParameterizedType) _type).getActualTypeArguments()[0];
+                    return ArrayX.asTypedArrayList(args, listType, Conversions::convertRaw);
+                }
+            }
+            var creator = findCreator(args);
+            if (creator != null)
+                return creator.create(args);
+            var setters = getSetters();
+            if (setters.length == args.length) {
+                var obj = (Object) _factory.invokeExact();
+                for (var i = 0; i < setters.length; i++)
+                    setters[i].invokeExact(obj, args[i]);
+                return obj;
+            }
+            throw new IllegalArgumentException("No constructor: " + _type);
+        }
+
+        private Creator findCreator(Object[] args) throws IllegalAccessException {
+            var creators = getCreators();
+            if (creators.length == 0)
+                return null;
+            if (creators.length > 1) {
+                var inputTypes = Arrays.stream(args).map(DataTypes::toClass).toArray(Class[]::new);
+                for (var creator : creators)
+                    if (Arrays.equals(creator.raw(), inputTypes))
+                        return creator;
+            }
+            var first = creators[0];
+            return first.raw().length == args.length ? first : null;
+        }
+
+        private Creator[] getCreators() throws IllegalAccessException {
+            var creators = _creators;
+            if (creators != null)
+                return creators;
+            var ctors = Reflect.extractRawClass(_type).getConstructors();
+            creators = new Creator[ctors.length];
+            for (var i = 0; i < ctors.length; i++)
+                creators[i] = Creator.of(ctors[i]);
+            return _creators = creators;
+        }
+
+        private MethodHandle[] getSetters() throws ReflectiveOperationException {
+            var setters = _setters;
+            if (setters != null)
+                return setters;
+            var clazz = Reflect.extractRawClass(_type);
+            var props = Reflect.getProperties(clazz);
+            setters = new MethodHandle[props.size()];
+            for (var i = 0; i < setters.length; i++)
+                setters[i] = toHandle(props.get(i).set(), 1);
+            _factory = Lookup.findConstructor(clazz, MethodType.methodType(void.class))
+                    .asType(MethodType.genericMethodType(0));
+            return _setters = setters;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package jnetproto.java.tools;
 
 import com.xafero.javaenums.BitFlag;
 import com.xafero.javaenums.Enums;
-import jnetbase.java.meta.Reflect;
 import jnetbase.java.sys.ArrayX;
 import jnetproto.java.api.DataType;
 import jnetproto.java.core.DataTypes;
@@ -55,70 +54,19 @@ public final class Conversions {
         return arg;
     }
 
-    private static boolean isUsable(Constructor creator, Object[] args) {
-        return creator.getParameters().length == args.length;
-    }
-
     public static Object fromObjectArray(Type type, Object[] args) {
         try {
-            var kind = DataTypes.getKind(type);
-            if (kind.Kind() != DataType.Unknown)
-            {
-                if (kind instanceof DataTypes.ArrayDt at && at.Item().Kind() == DataType.Unknown)
-                {
-                    var arrayType = ((Class<?>)type).getComponentType();
-                    var array = ArrayX.asTypedArray(args, arrayType, Conversions::convertRaw);
-                    return array;
-                }
-                if (kind instanceof DataTypes.ListDt lt && lt.Item().Kind() == DataType.Unknown)
-                {
-                    var listType = ((ParameterizedType)type).getActualTypeArguments()[0];
-                    var list = ArrayX.asTypedArrayList(args, listType, Conversions::convertRaw);
-                    return list;
-                }
-            }
-            var inputTypes = Arrays.stream(args).map(DataTypes::toClass).toArray(Class[]::new);
-            var creator = Reflect.getConstructor(type, inputTypes);
-            if (creator == null || !isUsable(creator, args)) {
-                creator = Reflect.getFirstConstructor(type);
-                if (creator == null || !isUsable(creator, args)) {
-                    var props = Reflect.getProperties(type);
-                    if (props.size() == args.length) {
-                        var obj = Reflect.createNew(type);
-                        for (var i = 0; i < props.size(); i++) {
-                            var arg = args[i];
-                            var prop = props.get(i);
-                            prop.set().invoke(obj, arg);
-                        }
-                        return obj;
-                    }
-                    throw new IllegalArgumentException("No constructor: " + type);
-                }
-            }
-            var outputTypes = creator.getParameters();
-            args = Conversions.convertFor(args, creator);
-            args = convertFor(args, outputTypes);
-            return creator.newInstance(args);
-        } catch (Exception e) {
+            return Codecs.getDecoder(type).decode(args);
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static Object[] convertFor(Object[] args, Parameter[] parameters)
-    {
-        for (var i = 0; i < args.length && i < parameters.length; i++)
-        {
-            var prm = parameters[i].getParameterizedType();
-            var arg = args[i];
-            var value = convertRaw(arg, prm);
-            args[i] = value;
-        }
-        return args;
-    }
-
-    private static Object convertRaw(Object v, Type r)
+    static Object convertRaw(Object v, Type r)
     {
-        var t = r instanceof Class<?> c ? c : (Class) ((ParameterizedType)r).getRawType();
+        var t = r instanceof Class<?> c ? c
+                : r instanceof ParameterizedType p ? (Class<?>) p.getRawType()
+                : Object.class;
         if (t.isEnum())
             return v;
         if (t.equals(Object.class))
@@ -144,17 +92,8 @@ public final class Conversions {
                         ar[i] = toObjectArray(ar[i]);
                 return obj;
             }
-            var type = obj.getClass();
-            var props = Reflect.getProperties(type);
-            var args = new Object[props.size()];
-            for (var i = 0; i < args.length; i++) {
-                var prop = props.get(i);
-                var propGet = prop.get();
-                var propVal = propGet.invoke(obj);
-                args[i] = toObjectArray(propVal);
-            }
-            return args;
-        } catch (Exception e) {
+            return Codecs.getEncoder(obj.getClass()).encode(obj);
+        } catch (Throwable e) {
             throw new RuntimeException(e);
         }
     }
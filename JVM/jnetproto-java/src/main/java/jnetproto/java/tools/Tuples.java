@@ -2,8 +2,42 @@ package jnetproto.java.tools;
 
 import org.javatuples.*;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 public final class Tuples {
 
+    private static final MethodHandle[] Creators = findCreators();
+
+    private static MethodHandle[] findCreators() {
+        var creators = new MethodHandle[9];
+        try {
+            for (var method : Tuples.class.getMethods()) {
+                if (!method.getName().equals("create"))
+                    continue;
+                var size = method.getParameterCount();
+                creators[size] = MethodHandles.lookup().unreflect(method)
+                        .asType(MethodType.genericMethodType(size))
+                        .asSpreader(Object[].class, size);
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return creators;
+    }
+
+    public static Tuple fromArray(Object[] args) {
+        var creator = args.length < Creators.length ? Creators[args.length] : null;
+        if (creator == null)
+            throw new IllegalArgumentException("No tuple with " + args.length + " items!");
+        try {
+            return (Tuple) (Object) creator.invokeExact(args);
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static <T1, T2, T3, T4, T5, T6, T7, T8> Octet<T1, T2, T3, T4, T5, T6, T7, T8> create(
             T1 a, T2 b, T3 c, T4 d, T5 e, T6 f, T7 g, T8 h) {
         return Octet.with(a, b, c, d, e, f, g, h);
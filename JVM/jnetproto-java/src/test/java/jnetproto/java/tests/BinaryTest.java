@@ -15,6 +15,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -156,6 +157,47 @@ public final class BinaryTest {
         }
     }
 
+    @Test(dataProvider = "writeArgs")
+    public void shouldWriteBuffered(String expected, Object value) throws Exception {
+        var mem = new ByteArrayOutputStream();
+        try (var writer = new BinaryWriter(mem, 32)) {
+            writer.writeObject(getValue(value));
+            writer.flush();
+            var actual = toHex(mem);
+            assertEquals(actual, expected);
+        }
+    }
+
+    @Test(dataProvider = "writeArgs")
+    public void shouldReadChunked(String expected, Object value) throws Exception {
+        var bytes = Hex.decodeHex(expected);
+        for (var bufferSize : new int[]{0, 32}) {
+            var input = new ByteArrayInputStream(bytes) {
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    return super.read(b, off, Math.min(len, 3));
+                }
+            };
+            try (var reader = new BinaryReader(input, bufferSize)) {
+                var obj = reader.readObject();
+                assertEquals(obj, getValue(value));
+            }
+        }
+    }
+
+    @Test(dataProvider = "writeArgs")
+    public void shouldReadBuffer(String expected, Object value) throws Exception {
+        var bytes = Hex.decodeHex(expected);
+        var heap = ByteBuffer.allocate(bytes.length + 3).position(3).put(bytes).position(3);
+        var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        for (var buffer : new ByteBuffer[]{heap, direct}) {
+            try (var reader = new BinaryReader(buffer)) {
+                var obj = reader.readObject();
+                assertEquals(obj, getValue(value));
+            }
+        }
+    }
+
     private static Object getValue(Object value) {
         var txt = value == null ? "" : value.toString();
         if (value instanceof Object[] objects) {
@@ -13,9 +13,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
 
 public final class ComplexTest {
 
@@ -114,6 +116,19 @@ public final class ComplexTest {
         testWrite(hex, value, creator);
     }
 
+    @Test
+    public void shouldDropFailedWrite() throws Exception {
+        var s = new ProtoSettings();
+        var mem = new ByteArrayOutputStream[1];
+        try (var writer = createWriter(mem, s)) {
+            // The map value has no wire type, so it breaks in the middle
+            expectThrows(IllegalArgumentException.class,
+                    () -> writer.writeObject(new Result(Map.of("a", new Object()), (short) 1)));
+            writer.writeObject(new Invalid(5, "not"));
+            assertEquals(BinaryTest.toHex(mem[0]), "0D000000130204050000000A03006E6F74");
+        }
+    }
+
     static void testWrite(String hex, Object value, Function<ProtoConvert, Object> creator)
             throws Exception {
         var s = new ProtoSettings();